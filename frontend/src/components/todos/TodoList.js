@@ -90,6 +90,51 @@ const TodoList = () => {
         fetchTodos();
     }, []); // Empty array = run once on mount
 
+    /**
+     * useEffect - LIVE UPDATES
+     *
+     * Subscribes to GET /api/todos/events (Server-Sent Events)
+     * Changes made in other tabs or devices show up without polling
+     *
+     * The returned function runs on unmount and closes the stream
+     */
+    useEffect(() => {
+        const unsubscribe = todoAPI.subscribe(applyEvent);
+        return unsubscribe;
+    }, []);
+
+    /**
+     * APPLY ONE CHANGE EVENT
+     *
+     * Our own changes arrive here too, so create skips ids we already have
+     */
+    const applyEvent = (event) => {
+        const todo = {
+            id: event.todoId,
+            title: event.title,
+            description: event.description,
+            completed: event.completed,
+            createdAt: event.createdAt,
+            updatedAt: event.updatedAt,
+        };
+
+        switch (event.type) {
+            case 'create':
+                setTodos((prev) => prev.some((t) => t.id === todo.id) ? prev : [...prev, todo]);
+                break;
+            case 'update':
+            case 'toggle':
+                setTodos((prev) => prev.map((t) => (t.id === todo.id ? todo : t)));
+                break;
+            case 'delete':
+                setTodos((prev) => prev.filter((t) => t.id !== event.todoId));
+                break;
+            default:
+                // 'refresh': many todos changed, reload the list
+                fetchTodos();
+        }
+    };
+
     /**
      * FETCH TODOS FUNCTION
      *
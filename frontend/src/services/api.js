@@ -170,6 +170,12 @@ api.interceptors.response.use(
      * - 204: No Content (successful, no response body)
      */
     console.log('✅ Response:', response.status, response.config.url);
+
+    // Stateless principal mode: the server re-issued the token with fresh claims
+    const refreshedToken = response.headers['x-refreshed-token'];
+    if (refreshedToken) {
+      localStorage.setItem('token', refreshedToken);
+    }
     return response;
   },
   (error) => {
@@ -405,6 +411,99 @@ export const todoAPI = {
   toggleComplete: (id) => {
     return api.patch(`/todos/${id}/toggle`);
   },
+
+  /**
+   * SUBSCRIBE TO TODO CHANGES
+   *
+   * GET /api/todos/events (Server-Sent Events)
+   *
+   * Calls onEvent(event) for every change made to the user's todos,
+   * from this tab or any other client
+   * - event.type: 'create' | 'update' | 'toggle' | 'delete' | 'refresh'
+   * - 'refresh': reload the whole list
+   *
+   * Why fetch() and not EventSource?
+   * - EventSource cannot send the Authorization header
+   *
+   * Reconnects after a dropped stream, sending Last-Event-ID so the
+   * server replays the events missed meanwhile
+   *
+   * @returns Function that closes the stream (call it on unmount)
+   */
+  subscribe: (onEvent) => {
+    let lastEventId = null;
+    let closed = false;
+    let controller = null;
+
+    const connect = async () => {
+      controller = new AbortController();
+      const headers = { Accept: 'text/event-stream' };
+      const token = localStorage.getItem('token');
+      if (token) {
+        headers.Authorization = `Bearer ${token}`;
+      }
+      if (lastEventId) {
+        headers['Last-Event-ID'] = lastEventId;
+      }
+
+      try {
+        const response = await fetch(`${API_BASE_URL}/todos/events`, {
+          headers,
+          signal: controller.signal,
+        });
+        if (response.status === 401) {
+          // fetch bypasses the axios interceptor: log out here, same as it does
+          console.log('🔒 Unauthorized - Please login again');
+          localStorage.removeItem('token');
+          localStorage.removeItem('user');
+          closed = true; // Don't reconnect without a token
+          window.location.assign('/login');
+          return;
+        }
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+
+        // SSE: events are separated by a blank line
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true });
+
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
+
+            let data = '';
+            block.split('\n').forEach((line) => {
+              if (line.startsWith('id:')) lastEventId = line.slice(3).trim();
+              if (line.startsWith('data:')) data += line.slice(5);
+            });
+            if (data) {
+              onEvent(JSON.parse(data));
+            }
+          }
+        }
+      } catch (error) {
+        if (closed) return;
+        console.error('Todo event stream error:', error);
+      }
+
+      // Stream ended (timeout, server restart, slow client): reconnect
+      if (!closed) {
+        setTimeout(connect, 3000);
+      }
+    };
+
+    connect();
+
+    return () => {
+      closed = true;
+      if (controller) controller.abort();
+    };
+  },
 };
 
 /**
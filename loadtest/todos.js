@@ -0,0 +1,134 @@
+/**
+ * LOAD TEST - platform vs virtual threads
+ *
+ * k6 script (https://k6.io), see loadtest/README.md
+ *
+ * Each virtual user has its own account (loadtest-<VU>), keeps its own
+ * connection open and loops:
+ * - GET /api/todos (JWT filter + repository query)
+ * - POST /api/todos (JWT filter + insert)
+ * - Every LOGIN_EVERY iterations: POST /api/auth/signin (BCrypt)
+ *
+ * Accounts are created and logged in once in setup(), before the
+ * measured run, so the BCrypt bulkhead isn't flooded by 10,000 signups
+ *
+ * Signin is rate limited per username and per client IP; every VU comes
+ * from the load generator's IP, so run the server with
+ * --security.login-rate-limit.enabled=false (see README.md)
+ *
+ * Options (environment variables):
+ * - BASE_URL: Backend URL (default http://localhost:8080)
+ * - VUS: Concurrent connections (default 10000)
+ * - DURATION: Test length (default 2m)
+ * - LOGIN_EVERY: Iterations between logins (default 20)
+ */
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const LOGIN_EVERY = parseInt(__ENV.LOGIN_EVERY || '20', 10);
+const VUS = parseInt(__ENV.VUS || '10000', 10);
+
+const PASSWORD = 'LoadTest#2024pass';
+
+// Signups/signins sent at once in setup(), below the hashing queue (100)
+const SETUP_BATCH = 50;
+
+export const options = {
+  scenarios: {
+    connections: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: __ENV.DURATION || '2m', target: VUS },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  setupTimeout: '30m', // One BCrypt hash per signup and per signin
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+function username(vu) {
+  return `loadtest-${vu}`;
+}
+
+function signinRequest(vu) {
+  return ['POST', `${BASE_URL}/api/auth/signin`,
+    JSON.stringify({ username: username(vu), password: PASSWORD }),
+    { headers: JSON_HEADERS, tags: { name: 'signin' } }];
+}
+
+function login() {
+  const res = http.request(...signinRequest(__VU));
+  // 503: the BCrypt bulkhead shed the login (expected when it is saturated)
+  check(res, { 'signin 200': (r) => r.status === 200 });
+  return res.status === 200 ? res.json('token') : null;
+}
+
+/**
+ * Send requests SETUP_BATCH at a time; retry the ones the server
+ * pushed back (503 from the BCrypt bulkhead, 429 from the rate limit)
+ */
+function sendAll(vus, request) {
+  const responses = {};
+  let pending = vus;
+  while (pending.length > 0) {
+    const retry = [];
+    for (let i = 0; i < pending.length; i += SETUP_BATCH) {
+      const chunk = pending.slice(i, i + SETUP_BATCH);
+      http.batch(chunk.map(request)).forEach((res, j) => {
+        if (res.status === 503 || res.status === 429) {
+          retry.push(chunk[j]);
+        } else {
+          responses[chunk[j]] = res;
+        }
+      });
+    }
+    if (retry.length > 0) {
+      sleep(1);
+    }
+    pending = retry;
+  }
+  return responses;
+}
+
+/**
+ * SETUP - runs once: create one user per VU and get their tokens
+ */
+export function setup() {
+  const vus = Array.from({ length: VUS }, (_, i) => i + 1);
+
+  sendAll(vus, (vu) => ['POST', `${BASE_URL}/api/auth/signup`,
+    JSON.stringify({ username: username(vu), email: `${username(vu)}@example.com`, password: PASSWORD }),
+    { headers: JSON_HEADERS }]);
+
+  const signins = sendAll(vus, signinRequest);
+  const tokens = vus.map((vu) => (signins[vu].status === 200 ? signins[vu].json('token') : null));
+  return { tokens };
+}
+
+// Module scope is per VU: the VU's current token
+let token = null;
+
+export default function (data) {
+  token = token || data.tokens[__VU - 1];
+  if (__ITER % LOGIN_EVERY === LOGIN_EVERY - 1) {
+    token = login() || token;
+  }
+
+  const auth = { headers: { ...JSON_HEADERS, Authorization: `Bearer ${token}` } };
+
+  const list = http.get(`${BASE_URL}/api/todos?limit=50`, { ...auth, tags: { name: 'list' } });
+  check(list, { 'list 200': (r) => r.status === 200 });
+
+  const create = http.post(`${BASE_URL}/api/todos`,
+    JSON.stringify({ title: `Load test ${__VU}-${__ITER}` }),
+    { ...auth, tags: { name: 'create' } });
+  check(create, { 'create 201': (r) => r.status === 201 });
+
+  sleep(1);
+}
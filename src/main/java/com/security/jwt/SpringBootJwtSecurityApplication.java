@@ -3,6 +3,7 @@ package com.security.jwt;
 import com.security.jwt.models.ERole;
 import com.security.jwt.models.Role;
 import com.security.jwt.repository.RoleRepository;
+import com.security.jwt.services.RoleRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -107,11 +108,15 @@ public class SpringBootJwtSecurityApplication {
      * 2. Database migration tool (Flyway/Liquibase) - Best for production
      * 3. This approach - Good for learning/development
      *
+     * Afterwards the roles are loaded into RoleRegistry, so signups
+     * don't query the roles table
+     *
      * @param roleRepository - Injected by Spring automatically
+     * @param roleRegistry - In-memory role lookup used by signup
      * @return CommandLineRunner that initializes roles
      */
     @Bean
-    CommandLineRunner initDatabase(RoleRepository roleRepository) {
+    CommandLineRunner initDatabase(RoleRepository roleRepository, RoleRegistry roleRegistry) {
         /*
          * LAMBDA EXPRESSION
          *
@@ -224,6 +229,9 @@ public class SpringBootJwtSecurityApplication {
                  */
                 System.out.println("Roles already exist, skipping initialization.");
             }
+
+            // Load the roles into memory once (one query)
+            roleRegistry.refresh();
         };
     }
 }
@@ -7,12 +7,16 @@ import com.security.jwt.payload.request.LoginRequest;
 import com.security.jwt.payload.request.SignupRequest;
 import com.security.jwt.payload.response.JwtResponse;
 import com.security.jwt.payload.response.MessageResponse;
-import com.security.jwt.repository.RoleRepository;
 import com.security.jwt.repository.UserRepository;
 import com.security.jwt.security.jwt.JwtUtils;
+import com.security.jwt.security.services.UserDetailsCache;
 import com.security.jwt.security.services.UserDetailsImpl;
+import com.security.jwt.security.services.UserExistenceFilter;
+import com.security.jwt.services.RoleRegistry;
 import jakarta.validation.Valid;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -23,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -77,7 +82,7 @@ public class AuthController {
     UserRepository userRepository; // For database operations on users
 
     @Autowired
-    RoleRepository roleRepository; // For database operations on roles
+    RoleRegistry roleRegistry; // In-memory roles (no query per signup)
 
     @Autowired
     PasswordEncoder encoder; // For hashing passwords (BCrypt)
@@ -85,6 +90,12 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils; // For generating JWT tokens
 
+    @Autowired
+    UserDetailsCache userDetailsCache; // Cached principals used by AuthTokenFilter
+
+    @Autowired
+    UserExistenceFilter userExistenceFilter; // Lets signin skip queries for unknown usernames
+
     /**
      * SIGNIN ENDPOINT - User Login
      *
@@ -321,57 +332,20 @@ public class AuthController {
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         /*
-         * ============================================
-         * STEP 1: VALIDATE USERNAME UNIQUENESS
-         * ============================================
-         *
-         * userRepository.existsByUsername():
-         * - Checks if username already exists in database
-         * - Returns true if found, false if not found
-         * - Uses database query: SELECT COUNT(*) WHERE username = ?
-         *
-         * Why check this?
-         * - Username must be unique (database constraint)
-         * - Better to return friendly error than database exception
-         * - User gets immediate feedback
-         *
-         * If username exists:
-         * - Return 400 Bad Request
-         * - Include error message
-         * - User can try different username
-         */
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new MessageResponse("Error: Username is already taken!"));
-        }
-
-        /*
-         * ============================================
-         * STEP 2: VALIDATE EMAIL UNIQUENESS
-         * ============================================
+         * USERNAME AND EMAIL UNIQUENESS
          *
-         * Similar to username check, but for email
+         * Not checked up front (no existsByUsername/existsByEmail queries):
+         * - The users table's unique constraints reject duplicates on INSERT
+         * - One round trip instead of three, and two concurrent signups
+         *   with the same username can't both pass a check
+         * - See STEP 4 for how a rejected INSERT becomes the usual error
          *
-         * Why check email?
-         * - Email should be unique (one account per email)
-         * - Prevents duplicate accounts
-         * - Needed for password reset functionality
-         *
-         * Database constraint:
-         * - @UniqueConstraint in User entity
-         * - Database enforces uniqueness
-         * - But better to check before insert attempt
+         * Trade-off: a taken username now costs one BCrypt hash
          */
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new MessageResponse("Error: Email is already in use!"));
-        }
 
         /*
          * ============================================
-         * STEP 3: CREATE NEW USER ENTITY
+         * STEP 1: CREATE NEW USER ENTITY
          * ============================================
          *
          * new User():
@@ -406,7 +380,7 @@ public class AuthController {
 
         /*
          * ============================================
-         * STEP 4: ASSIGN ROLES TO USER
+         * STEP 2: ASSIGN ROLES TO USER
          * ============================================
          *
          * Get roles from request or use default
@@ -430,13 +404,10 @@ public class AuthController {
             /*
              * DEFAULT ROLE ASSIGNMENT
              *
-             * roleRepository.findByName(ERole.ROLE_USER):
-             * - Query database for USER role
-             * - Returns Optional<Role>
-             *
-             * .orElseThrow():
-             * - If role found: Return the Role
-             * - If not found: Throw RuntimeException
+             * roleRegistry.get(ERole.ROLE_USER):
+             * - Looks up the USER role in memory (see RoleRegistry)
+             * - No database query per signup
+             * - If not found: Throws RuntimeException
              *
              * Why might role not be found?
              * - Database not initialized with roles
@@ -447,8 +418,7 @@ public class AuthController {
              * - Add role to user's role collection
              * - Creates entry in user_roles join table
              */
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+            Role userRole = roleRegistry.get(ERole.ROLE_USER);
             roles.add(userRole);
         } else {
             /*
@@ -480,8 +450,7 @@ public class AuthController {
                          * - View system statistics
                          * - etc.
                          */
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+                        Role adminRole = roleRegistry.get(ERole.ROLE_ADMIN);
                         roles.add(adminRole);
                         break;
 
@@ -495,8 +464,7 @@ public class AuthController {
                          * - Handle reports
                          * - Less access than admin
                          */
-                        Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+                        Role modRole = roleRegistry.get(ERole.ROLE_MODERATOR);
                         roles.add(modRole);
                         break;
 
@@ -508,8 +476,7 @@ public class AuthController {
                          * Or if user explicitly requests "user" role
                          * Assign ROLE_USER
                          */
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+                        Role userRole = roleRegistry.get(ERole.ROLE_USER);
                         roles.add(userRole);
                 }
             });
@@ -517,7 +484,7 @@ public class AuthController {
 
         /*
          * ============================================
-         * STEP 5: SET ROLES AND SAVE USER
+         * STEP 3: SET ROLES AND SAVE USER
          * ============================================
          *
          * user.setRoles(roles):
@@ -541,11 +508,47 @@ public class AuthController {
          * - Database remains consistent
          */
         user.setRoles(roles);
-        userRepository.save(user);
 
         /*
          * ============================================
-         * STEP 6: RETURN SUCCESS RESPONSE
+         * STEP 4: SAVE, DUPLICATES REJECTED BY THE DATABASE
+         * ============================================
+         *
+         * saveAndFlush(): Sends the INSERTs now, inside save's transaction,
+         * so a unique constraint violation surfaces right here as
+         * DataIntegrityViolationException
+         *
+         * The violated constraint tells which field was taken
+         * (see duplicateMessage())
+         */
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse(duplicateMessage(e, signUpRequest)));
+        }
+
+        /*
+         * INVALIDATE CACHED PRINCIPAL
+         *
+         * Make sure AuthTokenFilter never serves a stale entry for this
+         * username (see UserDetailsCache)
+         * Any future role or password change must do the same
+         */
+        userDetailsCache.invalidate(user.getUsername());
+
+        /*
+         * REMEMBER THE NEW USERNAME
+         *
+         * From now on UserExistenceFilter answers "maybe" for the
+         * username, so signin checks the database again
+         */
+        userExistenceFilter.add(user.getUsername());
+
+        /*
+         * ============================================
+         * STEP 5: RETURN SUCCESS RESPONSE
          * ============================================
          *
          * ResponseEntity.ok():
@@ -563,6 +566,92 @@ public class AuthController {
          */
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
+
+    /**
+     * ERROR MESSAGE FOR A REJECTED SIGNUP INSERT
+     *
+     * Hibernate reports the violated constraint's name
+     * (User.USERNAME_CONSTRAINT or User.EMAIL_CONSTRAINT); if it doesn't,
+     * the name is looked for in the driver's message
+     *
+     * Only the name is compared, never the rest of the message: that
+     * holds the SQL and the inserted values, and an email such as
+     * "uk_users_username@example.com" must not read as a taken username
+     *
+     * If no name is found, the two existence queries are run now, only
+     * on this rare failure path
+     *
+     * @param e - The failed INSERT
+     * @param signUpRequest - The rejected registration data
+     * @return "Username is already taken" or "Email is already in use" message
+     * @throws DataIntegrityViolationException if neither field is taken
+     *         (some other constraint failed)
+     */
+    private String duplicateMessage(DataIntegrityViolationException e, SignupRequest signUpRequest) {
+        String violated = null;
+        for (Throwable cause = e; cause != null && violated == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                violated = violation.getConstraintName();
+            }
+        }
+        if (violated == null) {
+            violated = e.getMostSpecificCause().getMessage();
+        }
+
+        if (namesConstraint(violated, User.USERNAME_CONSTRAINT)) {
+            return "Error: Username is already taken!";
+        }
+        if (namesConstraint(violated, User.EMAIL_CONSTRAINT)) {
+            return "Error: Email is already in use!";
+        }
+        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+            return "Error: Username is already taken!";
+        }
+        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+            return "Error: Email is already in use!";
+        }
+        throw e;
+    }
+
+    /**
+     * DOES THIS NAME (OR DRIVER MESSAGE) REFER TO THE CONSTRAINT?
+     *
+     * Only the part that names the constraint is searched:
+     * - H2: "...violation: "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL)
+     *   VALUES (...)"; SQL statement: ..." → up to the first "("
+     * - PostgreSQL: "...unique constraint "uk_users_email"" then a
+     *   "Detail: Key (email)=(...)" line → first line, up to "("
+     * - MySQL: "Duplicate entry '...' for key 'users.uk_users_email'"
+     *   → after " for key "
+     *
+     * A match is a whole identifier equal to the name, optionally with
+     * H2's "_index_N" suffix
+     */
+    private static boolean namesConstraint(String violated, String constraint) {
+        if (violated == null) {
+            return false;
+        }
+        String part = violated.toLowerCase(Locale.ROOT);
+        int lineEnd = part.indexOf('\n');
+        if (lineEnd >= 0) {
+            part = part.substring(0, lineEnd);
+        }
+        int key = part.lastIndexOf(" for key ");
+        if (key >= 0) {
+            part = part.substring(key + " for key ".length());
+        }
+        int values = part.indexOf('(');
+        if (values >= 0) {
+            part = part.substring(0, values);
+        }
+
+        for (String identifier : part.split("[^a-z0-9_$]+")) {
+            if (identifier.equals(constraint) || identifier.startsWith(constraint + "_index_")) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
 
 /*
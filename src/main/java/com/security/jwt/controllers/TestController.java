@@ -1,5 +1,6 @@
 package com.security.jwt.controllers;
 
+import com.security.jwt.security.jwt.JwtUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,7 +28,7 @@ import org.springframework.web.bind.annotation.RestController;
  * @RequestMapping: Base path for all endpoints
  * @CrossOrigin: Allow cross-origin requests
  */
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = JwtUtils.REFRESHED_TOKEN_HEADER)
 @RestController
 @RequestMapping("/api/test")
 public class TestController {
@@ -0,0 +1,89 @@
+package com.security.jwt.controllers;
+
+import com.security.jwt.exception.PayloadTooLargeException;
+import com.security.jwt.payload.request.TodoBatchRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * TODO BATCH BODY LIMIT
+ *
+ * Caps the size of POST /api/todos/batch bodies BEFORE Jackson reads them
+ *
+ * Why?
+ * - todos.batch.max-size is checked in the controller, i.e. after the
+ *   whole body has been turned into a TodoBatchRequest
+ * - Without a cap, one request with millions of items is fully parsed
+ *   into memory before it is rejected
+ *
+ * How:
+ * - Content-Length above the cap: rejected without reading the body
+ * - Otherwise (e.g. chunked upload): the body is read up to the cap
+ *   into memory here, and rejected if there is more
+ * - Both answer 413 Payload Too Large (GlobalExceptionHandler)
+ *
+ * The check happens here, not inside Jackson's stream: Jackson wraps
+ * whatever its input stream throws (WRAP_EXCEPTIONS), and the
+ * client would get 400 "malformed JSON" instead
+ *
+ * todos.batch.max-body-bytes should fit max-size operations with
+ * full-length fields (about 2.5 KB each at worst)
+ *
+ * @ControllerAdvice + RequestBodyAdviceAdapter: Spring MVC calls
+ * beforeBodyRead() before the message converter reads the body
+ */
+@ControllerAdvice
+public class TodoBatchBodyLimit extends RequestBodyAdviceAdapter {
+
+    @Value("${todos.batch.max-body-bytes:2097152}")
+    private int maxBodyBytes;
+
+    /**
+     * Only batch requests
+     */
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == TodoBatchRequest.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+                                           Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType)
+            throws IOException {
+        if (inputMessage.getHeaders().getContentLength() > maxBodyBytes) {
+            throw tooLarge();
+        }
+        // One byte past the cap tells "too large" from "exactly the cap"
+        byte[] body = inputMessage.getBody().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            throw tooLarge();
+        }
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+    }
+
+    private PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("A batch body cannot exceed " + maxBodyBytes + " bytes");
+    }
+}
@@ -1,18 +1,44 @@
 package com.security.jwt.controllers;
 
 import com.security.jwt.models.Todo;
-import com.security.jwt.models.User;
+import com.security.jwt.payload.request.TodoBatchRequest;
+import com.security.jwt.payload.request.TodoCursor;
+import com.security.jwt.payload.response.MessageResponse;
+import com.security.jwt.payload.response.TodoBatchResponse;
+import com.security.jwt.payload.response.TodoEvent;
+import com.security.jwt.payload.response.TodoImportResponse;
+import com.security.jwt.payload.response.TodoPageResponse;
+import com.security.jwt.payload.response.TodoView;
 import com.security.jwt.repository.TodoRepository;
 import com.security.jwt.repository.UserRepository;
+import com.security.jwt.security.jwt.JwtUtils;
 import com.security.jwt.security.services.UserDetailsImpl;
+import com.security.jwt.services.TodoBatchService;
+import com.security.jwt.services.TodoEventPublisher;
+import com.security.jwt.services.TodoExportService;
+import com.security.jwt.services.TodoImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -35,7 +61,7 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/api/todos")
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = JwtUtils.REFRESHED_TOKEN_HEADER)
 public class TodoController {
 
     @Autowired
@@ -44,11 +70,47 @@ public class TodoController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TodoBatchService todoBatchService;
+
+    @Autowired
+    private TodoExportService todoExportService;
+
+    @Autowired
+    private TodoImportService todoImportService;
+
+    @Autowired
+    private TodoEventPublisher todoEventPublisher;
+
+    /*
+     * EXPORT CONTENT TYPES
+     */
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    /*
+     * MAX BATCH SIZE
+     *
+     * Largest number of operations accepted by POST /api/todos/batch
+     * (create + update + toggle + delete together)
+     */
+    @Value("${todos.batch.max-size:500}")
+    private int maxBatchSize;
+
+    /*
+     * PAGE SIZE LIMITS (keyset pagination)
+     *
+     * DEFAULT_PAGE_SIZE: Used when a cursor is sent without a limit
+     * MAX_PAGE_SIZE: Largest page a client may request
+     */
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     /**
-     * GET CURRENT AUTHENTICATED USER
+     * GET CURRENT AUTHENTICATED USER ID
      *
      * Helper method used by all endpoints
-     * Extracts user from Spring Security context
+     * Extracts the user's ID from Spring Security context
      *
      * How it works:
      * 1. User sends request with JWT token
@@ -61,19 +123,21 @@ public class TodoController {
      * - Accessible anywhere in request thread
      * - Set by AuthTokenFilter
      *
-     * @return Current authenticated User entity
-     * @throws RuntimeException if user not found (shouldn't happen)
+     * Why only the ID?
+     * - The principal (UserDetailsImpl) already holds the user's ID
+     * - Every todo query filters by user ID, not by the User entity
+     * - Loading the full User here would cost one extra query per request
+     *
+     * @return ID of the current authenticated user
      */
-    private User getCurrentUser() {
+    private Long getCurrentUserId() {
         // Get authentication from context
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         // Extract UserDetails (set by AuthTokenFilter)
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-        // Load full User entity from database
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return userDetails.getId();
     }
 
     /**
@@ -85,6 +149,9 @@ public class TodoController {
      * Returns all todos for the authenticated user
      * Other users' todos are NOT included
      *
+     * List endpoints return read-only TodoView projections, not managed
+     * Todo entities (see TodoView), loaded in read-only transactions
+     *
      * Response: 200 OK
      * [
      *   {
@@ -101,17 +168,60 @@ public class TodoController {
      * Frontend usage:
      * const response = await todoAPI.getAll();
      * const todos = response.data;
+     *
+     * ============================================
+     * CURSOR PAGINATION (recommended)
+     * ============================================
+     *
+     * GET /api/todos?limit=50
+     * GET /api/todos?limit=50&cursor=<next from previous page>
+     *
+     * When limit or cursor is given, the response is one page:
+     * {
+     *   "items": [ ... up to limit todos, oldest first ... ],
+     *   "next": "MjAyNC0wMS0xNVQxMDozMDowMHw0Mg"   // null on the last page
+     * }
+     *
+     * Why cursors instead of ?page=N (OFFSET)?
+     * - OFFSET makes the database read and throw away all earlier rows
+     * - Cursor pages start right after the last row seen (see TodoCursor)
+     * - Every page costs the same, however deep
+     *
+     * Without limit and cursor the full list is returned (as above)
+     *
+     * Conditional GET:
+     * - Responses carry an ETag header
+     * - Send it back as If-None-Match: 304 Not Modified if nothing changed
+     * - See ETAGS below
+     *
+     * Error: 400 Bad Request
+     * - limit outside 1..500
+     * - cursor that was not issued by this API
      */
     @GetMapping
-    public ResponseEntity<List<Todo>> getAllTodos() {
-        // Get authenticated user
-        User user = getCurrentUser();
+    public ResponseEntity<?> getAllTodos(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            ServletWebRequest request) {
+        // Get authenticated user's ID
+        Long userId = getCurrentUserId();
+
+        // Nothing changed since the client's copy: 304, list not loaded
+        String etag = listEtag(userId);
+        if (notModified(request, etag)) {
+            return null;
+        }
+
+        // Cursor pagination requested
+        if (limit != null || cursor != null) {
+            return withEtag(listTodoPage(userId, null, limit, cursor), etag);
+        }
 
         // Fetch only this user's todos
-        List<Todo> todos = todoRepository.findByUserId(user.getId());
+        List<TodoView> todos = todoRepository.findByUserId(userId);
 
         // Return list of todos
-        return ResponseEntity.ok(todos);
+        return withEtag(ResponseEntity.ok(todos), etag);
     }
 
     /**
@@ -138,19 +248,31 @@ public class TodoController {
      *   ...
      * }
      *
+     * Conditional GET:
+     * - ETag is built from the todo's updatedAt
+     * - If-None-Match with the current ETag: 304, todo not loaded
+     *
      * Error: 404 Not Found
      * - Todo doesn't exist
      * - Todo belongs to different user
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Todo> getTodoById(@PathVariable Long id) {
-        User user = getCurrentUser();
+    public ResponseEntity<Todo> getTodoById(@PathVariable Long id, ServletWebRequest request) {
+        Long userId = getCurrentUserId();
+
+        // ETag from the row's updatedAt (one column, security check included)
+        LocalDateTime updatedAt = todoRepository.findUpdatedAtByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Todo not found"));
+        String etag = etag(id, updatedAt);
+        if (notModified(request, etag)) {
+            return null;
+        }
 
         // Find todo by ID AND user ID (security check)
-        Todo todo = todoRepository.findByIdAndUserId(id, user.getId())
+        Todo todo = todoRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Todo not found"));
 
-        return ResponseEntity.ok(todo);
+        return withEtag(ResponseEntity.ok(todo), etag);
     }
 
     /**
@@ -175,8 +297,8 @@ public class TodoController {
      *
      * Process:
      * 1. Validate request body
-     * 2. Get current user
-     * 3. Set user as todo owner
+     * 2. Get current user's ID
+     * 3. Set user reference as todo owner
      * 4. Set completed to false (new todos not completed)
      * 5. Save to database
      * 6. Return saved todo with generated ID
@@ -193,16 +315,23 @@ public class TodoController {
      */
     @PostMapping
     public ResponseEntity<Todo> createTodo(@Valid @RequestBody Todo todo) {
-        User user = getCurrentUser();
-
-        // Set the owner (current user)
-        todo.setUser(user);
+        /*
+         * SET THE OWNER (current user)
+         *
+         * userRepository.getReferenceById():
+         * - Returns a lazy proxy with only the ID set
+         * - Does NOT query the users table
+         * - Enough for JPA to write the user_id foreign key
+         */
+        Long userId = getCurrentUserId();
+        todo.setUser(userRepository.getReferenceById(userId));
 
         // New todos start as not completed
         todo.setCompleted(false);
 
         // Save to database
         Todo savedTodo = todoRepository.save(todo);
+        todoEventPublisher.publish(userId, TodoEvent.CREATE, savedTodo);
 
         // Return 201 Created with saved todo
         return ResponseEntity.status(HttpStatus.CREATED).body(savedTodo);
@@ -252,10 +381,10 @@ public class TodoController {
             @PathVariable Long id,
             @Valid @RequestBody Todo todoDetails) {
 
-        User user = getCurrentUser();
+        Long userId = getCurrentUserId();
 
         // Find existing todo (security check)
-        Todo todo = todoRepository.findByIdAndUserId(id, user.getId())
+        Todo todo = todoRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Todo not found"));
 
         // Update fields
@@ -265,6 +394,7 @@ public class TodoController {
 
         // Save updated todo
         Todo updatedTodo = todoRepository.save(todo);
+        todoEventPublisher.publish(userId, TodoEvent.UPDATE, updatedTodo);
 
         return ResponseEntity.ok(updatedTodo);
     }
@@ -294,10 +424,10 @@ public class TodoController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteTodo(@PathVariable Long id) {
-        User user = getCurrentUser();
+        Long userId = getCurrentUserId();
 
         // Attempt to delete (returns count of deleted records)
-        Long deletedCount = todoRepository.deleteByIdAndUserId(id, user.getId());
+        Long deletedCount = todoRepository.deleteByIdAndUserId(id, userId);
 
         if (deletedCount == 0) {
             // Todo not found or doesn't belong to user
@@ -305,6 +435,7 @@ public class TodoController {
         }
 
         // Successfully deleted
+        todoEventPublisher.publishDeleted(userId, id);
         return ResponseEntity.ok().build();
     }
 
@@ -337,10 +468,10 @@ public class TodoController {
      */
     @PatchMapping("/{id}/toggle")
     public ResponseEntity<Todo> toggleTodoCompletion(@PathVariable Long id) {
-        User user = getCurrentUser();
+        Long userId = getCurrentUserId();
 
         // Find todo (security check)
-        Todo todo = todoRepository.findByIdAndUserId(id, user.getId())
+        Todo todo = todoRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Todo not found"));
 
         // Toggle completion status
@@ -348,10 +479,231 @@ public class TodoController {
 
         // Save updated todo
         Todo updatedTodo = todoRepository.save(todo);
+        todoEventPublisher.publish(userId, TodoEvent.TOGGLE, updatedTodo);
 
         return ResponseEntity.ok(updatedTodo);
     }
 
+    /**
+     * COMPLETE ALL TODOS
+     *
+     * PATCH /api/todos/complete-all
+     * PATCH /api/todos/complete-all?completed=false   (mark all as pending)
+     * Headers: Authorization: Bearer <token>
+     *
+     * Sets completed on every todo of the user with ONE UPDATE statement
+     * (instead of one toggle request per todo)
+     *
+     * Response: 200 OK
+     * {
+     *   "count": 7   // number of todos changed
+     * }
+     */
+    @PatchMapping("/complete-all")
+    public ResponseEntity<?> completeAllTodos(
+            @RequestParam(defaultValue = "true") Boolean completed) {
+        Long userId = getCurrentUserId();
+        int updated = todoRepository.updateCompletedByUserId(userId, completed, LocalDateTime.now());
+        if (updated > 0) {
+            todoEventPublisher.publishRefresh(userId);
+        }
+        return ResponseEntity.ok(new CountResponse((long) updated));
+    }
+
+    /**
+     * CLEAR COMPLETED TODOS
+     *
+     * DELETE /api/todos/completed
+     * Headers: Authorization: Bearer <token>
+     *
+     * Deletes every completed todo of the user with ONE DELETE statement
+     *
+     * Response: 200 OK
+     * {
+     *   "count": 3   // number of todos deleted
+     * }
+     */
+    @DeleteMapping("/completed")
+    public ResponseEntity<?> clearCompletedTodos() {
+        Long userId = getCurrentUserId();
+        int deleted = todoRepository.deleteCompletedByUserId(userId);
+        if (deleted > 0) {
+            todoEventPublisher.publishRefresh(userId);
+        }
+        return ResponseEntity.ok(new CountResponse((long) deleted));
+    }
+
+    /**
+     * BATCH CHANGES
+     *
+     * POST /api/todos/batch
+     * Headers: Authorization: Bearer <token>
+     * Content-Type: application/json
+     *
+     * Applies many creates, updates, toggles and deletes in one request
+     * See TodoBatchRequest for the body format
+     *
+     * Why?
+     * - Sync clients send hundreds of changes at a time
+     * - One request = one authentication and one transaction
+     * - Statements are sent in JDBC batches (see TodoBatchService)
+     *
+     * Each item succeeds or fails on its own:
+     * - Invalid item: 400 in its result
+     * - Todo doesn't exist or belongs to another user: 404 in its result
+     *
+     * Response: 200 OK with TodoBatchResponse (one result per operation)
+     *
+     * Error: 400 Bad Request
+     * - More than todos.batch.max-size operations
+     *
+     * Error: 413 Payload Too Large
+     * - Body over todos.batch.max-body-bytes, rejected before it is parsed
+     *   (see TodoBatchBodyLimit)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody TodoBatchRequest request) {
+        if (request.size() > maxBatchSize) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Error: A batch cannot exceed " + maxBatchSize + " operations"));
+        }
+
+        Long userId = getCurrentUserId();
+        TodoBatchResponse response = todoBatchService.apply(userId, request);
+
+        // Committed: tell open event streams to reload
+        if (response.getSucceeded() > 0) {
+            todoEventPublisher.publishRefresh(userId);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * SUBSCRIBE TO TODO CHANGES (Server-Sent Events)
+     *
+     * GET /api/todos/events
+     * Headers: Authorization: Bearer <token>
+     *          Last-Event-ID: <id>   (optional, when reconnecting)
+     *
+     * Keeps the response open and sends an event for every change to the
+     * user's todos (see TodoEvent), instead of the frontend polling
+     *
+     * Events:
+     * - create, update, toggle: data is the todo's new state
+     * - delete: data holds the deleted todo's id
+     * - refresh: many todos changed (batch, import, complete-all, ...) or
+     *   missed events are no longer available: reload the list
+     *
+     * Reconnecting with Last-Event-ID replays the events missed meanwhile
+     * (kept in a short in-memory buffer, see TodoEventPublisher)
+     *
+     * The response is written by TodoEventPublisher (servlet async,
+     * non-blocking writes), so this method returns nothing
+     *
+     * Response: 200 OK, Content-Type: text/event-stream
+     * id: 12
+     * event: toggle
+     * data: {"id":12,"type":"toggle","todoId":7,"completed":true,...}
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void subscribeToEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        todoEventPublisher.subscribe(getCurrentUserId(), lastEventId, request, response);
+    }
+
+    /**
+     * EXPORT TODOS
+     *
+     * GET /api/todos/export                (NDJSON, one todo per line)
+     * GET /api/todos/export?format=csv     (CSV with header line)
+     * Headers: Authorization: Bearer <token>
+     *
+     * Streams all of the user's todos, oldest first
+     *
+     * Why stream?
+     * - GET /api/todos loads every todo into a List and builds one JSON array
+     * - Here rows go from a database cursor straight to the response
+     *   (see TodoExportService), so memory use doesn't grow with the data
+     *
+     * StreamingResponseBody:
+     * - Written after this method returns, on an async request thread
+     * - The user ID is read here, while the SecurityContext is available
+     *
+     * Response: 200 OK
+     * {"id":1,"title":"Learn React",...}
+     * {"id":2,"title":"Learn Spring",...}
+     *
+     * Error: 400 Bad Request
+     * - format other than ndjson or csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportTodos(@RequestParam(defaultValue = "ndjson") String format) {
+        if (!todoExportService.supports(format)) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Error: format must be ndjson or csv"));
+        }
+
+        Long userId = getCurrentUserId();
+        boolean csv = TodoExportService.FORMAT_CSV.equals(format);
+        StreamingResponseBody body = out -> todoExportService.export(userId, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"todos." + format + "\"")
+                .body(body);
+    }
+
+    /**
+     * IMPORT TODOS
+     *
+     * POST /api/todos/import                (NDJSON, one todo per line)
+     * POST /api/todos/import?format=csv     (CSV with header line)
+     * Headers: Authorization: Bearer <token>
+     * Body: The file itself (e.g. a file from GET /api/todos/export)
+     *
+     * Adds every valid record as a new todo of the user
+     * - Same rules as POST /api/todos (title required, max lengths)
+     * - Invalid records are skipped and reported
+     *
+     * The body is read as a stream and saved in chunks (see TodoImportService),
+     * so uploads of any size use the same amount of memory
+     *
+     * Response: 200 OK
+     * {
+     *   "accepted": 998,
+     *   "rejected": 2,
+     *   "errors": [ { "line": 17, "error": "Title is required" }, ... ]
+     * }
+     *
+     * Error: 400 Bad Request
+     * - format other than ndjson or csv
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importTodos(
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) throws IOException {
+        if (!todoImportService.supports(format)) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Error: format must be ndjson or csv"));
+        }
+
+        Long userId = getCurrentUserId();
+        TodoImportResponse response;
+        try {
+            response = todoImportService.importTodos(userId, format, body);
+        } finally {
+            // Chunks are committed as they fill, even if the upload fails later
+            todoEventPublisher.publishRefresh(userId);
+        }
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * GET COMPLETED TODOS
      *
@@ -359,17 +711,28 @@ public class TodoController {
      *
      * Returns only completed todos for the user
      * Useful for showing completed/incomplete todos separately
+     * Supports the same ?limit=&cursor= pagination as GET /api/todos
      *
      * Query parameter alternative:
      * GET /api/todos?completed=true
      * Then use @RequestParam Boolean completed
      */
     @GetMapping("/completed")
-    public ResponseEntity<List<Todo>> getCompletedTodos() {
-        User user = getCurrentUser();
-        List<Todo> completedTodos = todoRepository.findByUserIdAndCompleted(
-                user.getId(), true);
-        return ResponseEntity.ok(completedTodos);
+    public ResponseEntity<?> getCompletedTodos(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            ServletWebRequest request) {
+        Long userId = getCurrentUserId();
+        String etag = listEtag(userId);
+        if (notModified(request, etag)) {
+            return null;
+        }
+        if (limit != null || cursor != null) {
+            return withEtag(listTodoPage(userId, true, limit, cursor), etag);
+        }
+        List<TodoView> completedTodos = todoRepository.findByUserIdAndCompleted(
+                userId, true);
+        return withEtag(ResponseEntity.ok(completedTodos), etag);
     }
 
     /**
@@ -378,13 +741,85 @@ public class TodoController {
      * GET /api/todos/pending
      *
      * Returns only pending (not completed) todos
+     * Supports the same ?limit=&cursor= pagination as GET /api/todos
      */
     @GetMapping("/pending")
-    public ResponseEntity<List<Todo>> getPendingTodos() {
-        User user = getCurrentUser();
-        List<Todo> pendingTodos = todoRepository.findByUserIdAndCompleted(
-                user.getId(), false);
-        return ResponseEntity.ok(pendingTodos);
+    public ResponseEntity<?> getPendingTodos(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            ServletWebRequest request) {
+        Long userId = getCurrentUserId();
+        String etag = listEtag(userId);
+        if (notModified(request, etag)) {
+            return null;
+        }
+        if (limit != null || cursor != null) {
+            return withEtag(listTodoPage(userId, false, limit, cursor), etag);
+        }
+        List<TodoView> pendingTodos = todoRepository.findByUserIdAndCompleted(
+                userId, false);
+        return withEtag(ResponseEntity.ok(pendingTodos), etag);
+    }
+
+    /**
+     * LIST ONE PAGE OF TODOS (keyset pagination)
+     *
+     * Shared by GET /api/todos, /completed and /pending
+     *
+     * Process:
+     * 1. Validate limit and decode cursor
+     * 2. Ask for limit + 1 rows
+     *    - If we get the extra row, there is a next page
+     *    - No separate COUNT(*) query needed
+     * 3. Return at most limit rows and the cursor of the last one
+     *
+     * @param userId - Current user's ID
+     * @param completed - Completion filter, or null for all todos
+     * @param limit - Page size, or null for the default
+     * @param cursor - Cursor from the previous page, or null for the first page
+     * @return 200 with TodoPageResponse, or 400 for bad limit/cursor
+     */
+    private ResponseEntity<?> listTodoPage(Long userId, Boolean completed, Integer limit, String cursor) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Error: limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        TodoCursor after = null;
+        if (cursor != null) {
+            try {
+                after = TodoCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(new MessageResponse("Error: Invalid cursor"));
+            }
+        }
+
+        // One extra row tells us whether another page exists
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<TodoView> rows;
+        if (after == null) {
+            rows = completed == null
+                    ? todoRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId, page)
+                    : todoRepository.findByUserIdAndCompletedOrderByCreatedAtAscIdAsc(userId, completed, page);
+        } else {
+            rows = completed == null
+                    ? todoRepository.findPageAfter(userId, after.getCreatedAt(), after.getId(), page)
+                    : todoRepository.findPageAfterByCompleted(
+                            userId, completed, after.getCreatedAt(), after.getId(), page);
+        }
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            TodoView last = rows.get(pageSize - 1);
+            next = new TodoCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return ResponseEntity.ok(new TodoPageResponse<>(rows, next));
     }
 
     /**
@@ -405,10 +840,92 @@ public class TodoController {
      * - Limiting todos per user
      */
     @GetMapping("/count")
-    public ResponseEntity<?> getTodoCount() {
-        User user = getCurrentUser();
-        Long count = todoRepository.countByUserId(user.getId());
-        return ResponseEntity.ok(new CountResponse(count));
+    public ResponseEntity<?> getTodoCount(ServletWebRequest request) {
+        Long userId = getCurrentUserId();
+
+        // The version query already holds the count: one query either way
+        TodoRepository.TodoVersion version = todoRepository.findVersionByUserId(userId);
+        String etag = etag(version.getCount(), version.getLastUpdated());
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return withEtag(ResponseEntity.ok(new CountResponse(version.getCount())), etag);
+    }
+
+    /*
+     * ============================================
+     * ETAGS (conditional GET)
+     * ============================================
+     *
+     * Read endpoints send an ETag header: a version of the data
+     * Clients polling for changes send it back in If-None-Match:
+     * - Same version: 304 Not Modified, empty body
+     *   (checked BEFORE loading or serializing anything)
+     * - Changed: 200 with the new data and the new ETag
+     *
+     * Versions:
+     * - Lists and count: number of the user's todos + newest updatedAt
+     *   (see TodoRepository.findVersionByUserId)
+     * - Single todo: its id + updatedAt
+     *
+     * Cache-Control: no-cache, private
+     * - Replaces Spring Security's default "no-store", which would stop
+     *   browsers from keeping the copy they need to revalidate
+     * - no-cache: Always ask the server (with If-None-Match) before reuse
+     * - private: Never stored by shared caches (responses are per user)
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /**
+     * ETAG OF ALL OF A USER'S TODOS
+     */
+    private String listEtag(Long userId) {
+        TodoRepository.TodoVersion version = todoRepository.findVersionByUserId(userId);
+        return etag(version.getCount(), version.getLastUpdated());
+    }
+
+    /**
+     * BUILD A STRONG ETAG
+     *
+     * Example: "12-1705314600.500000000"
+     */
+    private static String etag(Long key, LocalDateTime updatedAt) {
+        String stamp = updatedAt == null
+                ? "0"
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) + "." + updatedAt.getNano();
+        return "\"" + key + "-" + stamp + "\"";
+    }
+
+    /**
+     * CHECK IF-NONE-MATCH
+     *
+     * checkNotModified() sets status 304 and the ETag header when the
+     * client's copy is current; the endpoint then returns null (no body)
+     *
+     * @return true if the endpoint should return null
+     */
+    private static boolean notModified(ServletWebRequest request, String etag) {
+        if (!request.checkNotModified(etag)) {
+            return false;
+        }
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        return true;
+    }
+
+    /**
+     * ADD ETAG TO A SUCCESSFUL RESPONSE
+     *
+     * Error responses (e.g. 400 for a bad cursor) are returned unchanged
+     */
+    private static <T> ResponseEntity<T> withEtag(ResponseEntity<T> response, String etag) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(response.getBody());
     }
 
     // Helper class for count response
@@ -457,6 +974,29 @@ public class TodoController {
  * DELETE /api/todos/1
  * Headers: Authorization: Bearer <token>
  *
+ * 7. Complete all / clear completed:
+ * PATCH /api/todos/complete-all
+ * DELETE /api/todos/completed
+ * Headers: Authorization: Bearer <token>
+ *
+ * 8. Export:
+ * GET /api/todos/export?format=csv
+ * Headers: Authorization: Bearer <token>
+ *
+ * 9. Import:
+ * POST /api/todos/import?format=csv
+ * Headers: Authorization: Bearer <token>
+ * Body: CSV file with a title column
+ *
+ * 10. Live changes:
+ * GET /api/todos/events
+ * Headers: Authorization: Bearer <token>
+ *
+ * 11. Batch changes:
+ * POST /api/todos/batch
+ * Headers: Authorization: Bearer <token>
+ * Body: { "create": [ { "title": "Learn Java" } ], "toggle": [1], "delete": [2] }
+ *
  * ============================================
  * SECURITY NOTES
  * ============================================
@@ -481,29 +1021,23 @@ public class TodoController {
  * POSSIBLE EXTENSIONS
  * ============================================
  *
- * 1. Pagination:
- * @GetMapping
- * public Page<Todo> getTodos(Pageable pageable) {
- *     return todoRepository.findByUserId(userId, pageable);
- * }
- *
- * 2. Sorting:
+ * 1. Sorting:
  * @GetMapping
  * public List<Todo> getTodos(@RequestParam String sortBy) {
  *     return todoRepository.findByUserIdOrderByCreatedAtDesc(userId);
  * }
  *
- * 3. Search:
+ * 2. Search:
  * @GetMapping("/search")
  * public List<Todo> search(@RequestParam String keyword) {
  *     return todoRepository.findByUserIdAndTitleContaining(userId, keyword);
  * }
  *
- * 4. Categories/Tags:
+ * 3. Categories/Tags:
  * Add category field to Todo entity
  * Filter by category in queries
  *
- * 5. Due dates:
+ * 4. Due dates:
  * Add dueDate field
  * Query overdue todos
  * Sort by due date
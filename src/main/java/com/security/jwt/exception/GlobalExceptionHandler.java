@@ -1,5 +1,6 @@
 package com.security.jwt.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -229,6 +230,52 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * HANDLE PASSWORD HASHING REJECTED
+     *
+     * Thrown when too many logins/signups are waiting for BCrypt
+     * (see BoundedPasswordEncoder)
+     *
+     * 503 Service Unavailable + Retry-After:
+     * - The request was fine, the server is just busy
+     * - Answered at once instead of queueing without limit
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingRejected(
+            PasswordHashingRejectedException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now().toString());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service Unavailable");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    /**
+     * HANDLE PAYLOAD TOO LARGE
+     *
+     * Thrown when a body is over its size cap (see TodoBatchBodyLimit)
+     *
+     * Answered here rather than with ResponseStatusException: that goes
+     * through the /error dispatch, where the client would see the
+     * security layer's answer instead of 413
+     */
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handlePayloadTooLarge(PayloadTooLargeException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now().toString());
+        response.put("status", HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.put("error", "Payload Too Large");
+        response.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(response, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     /**
      * NOTE: ALTERNATIVE DETAILED ERROR RESPONSE
      *
@@ -0,0 +1,17 @@
+package com.security.jwt.exception;
+
+/**
+ * PASSWORD HASHING REJECTED
+ *
+ * Thrown by BoundedPasswordEncoder when its queue of pending BCrypt
+ * operations is full (too many logins/signups at once)
+ *
+ * GlobalExceptionHandler turns it into 503 Service Unavailable, so the
+ * client can retry later instead of waiting behind the queue
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
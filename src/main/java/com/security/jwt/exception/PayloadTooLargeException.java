@@ -0,0 +1,16 @@
+package com.security.jwt.exception;
+
+/**
+ * PAYLOAD TOO LARGE
+ *
+ * Thrown by TodoBatchBodyLimit when a request body is over its cap,
+ * before the body is parsed
+ *
+ * GlobalExceptionHandler turns it into 413 Payload Too Large
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
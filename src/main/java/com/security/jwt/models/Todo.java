@@ -1,5 +1,6 @@
 package com.security.jwt.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -24,14 +25,38 @@ import java.time.LocalDateTime;
  * - User-specific data filtering
  */
 @Entity
-@Table(name = "todos")
+@Table(name = "todos",
+       indexes = {
+           /*
+            * KEYSET PAGINATION INDEX
+            * Every list query filters by user_id and orders by (created_at, id)
+            * - The database reads a page as one index range scan
+            * - No sort step, no OFFSET rows to skip
+            */
+           @Index(name = "idx_todos_user_created", columnList = "user_id, created_at, id"),
+
+           /*
+            * COMPLETION STATUS INDEX
+            * Serves every query that filters on (user_id, completed):
+            * - findByUserIdAndCompleted (GET /completed, /pending)
+            * - keyset pages filtered by completed, already in (created_at, id) order
+            *
+            * countByUserId and findByIdAndUserId are served by the
+            * user_id prefix of either index (no separate user_id index needed)
+            */
+           @Index(name = "idx_todos_user_completed_created", columnList = "user_id, completed, created_at, id")
+       })
 public class Todo {
 
     /**
      * PRIMARY KEY
+     *
+     * Generated from the todos_seq sequence (pooled, 50 IDs per call)
+     * - Unlike IDENTITY, lets Hibernate batch INSERTs (see User.id)
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -78,7 +103,13 @@ public class Todo {
      * This enables user-specific todo filtering:
      * - User only sees their own todos
      * - Cannot access other users' todos
+     *
+     * @JsonIgnore: Never serialize the owner in API responses
+     * - Usually an uninitialized lazy proxy (or a getReferenceById proxy)
+     * - Serializing it would trigger a query or fail on the proxy
+     * - Would also leak the owner's password hash
      */
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -28,25 +28,46 @@ import java.util.Set;
             * - No two users can have the same email
             * - Database will reject inserts/updates that violate this
             */
-           @UniqueConstraint(columnNames = "username"),
-           @UniqueConstraint(columnNames = "email")
+           @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+           @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
        })
 public class User {
 
+    /*
+     * CONSTRAINT NAMES
+     *
+     * Named so AuthController.registerUser can tell from a failed INSERT
+     * whether the username or the email was taken
+     */
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     /*
      * PRIMARY KEY - ID
      *
      * @Id: Marks this field as the primary key (unique identifier for each row)
      * @GeneratedValue: Database automatically generates the value
-     * - GenerationType.IDENTITY: Uses database auto-increment feature
+     * - GenerationType.SEQUENCE: Uses the users_seq database sequence
      * - Each new user gets the next available ID automatically
      *
+     * Why a sequence instead of IDENTITY (auto-increment)?
+     * - With IDENTITY the ID is only known after the INSERT runs,
+     *   so Hibernate must execute every INSERT immediately, one by one
+     * - This disables JDBC batching (see hibernate.jdbc.batch_size)
+     * - With a sequence, Hibernate gets the ID first and can batch INSERTs
+     *
+     * @SequenceGenerator(allocationSize = 50):
+     * - Pooled optimizer: one sequence call reserves 50 IDs
+     * - Next 49 users get their IDs without touching the database
+     * - IDs may have gaps after a restart (that's fine for primary keys)
+     *
      * Why use Long instead of int?
      * - Long can hold much larger numbers (2^63 vs 2^31)
      * - Prevents ID overflow in large applications
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     /*
@@ -1,5 +1,6 @@
 package com.security.jwt.payload.request;
 
+import com.security.jwt.validation.NotBreached;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -71,9 +72,13 @@ public class SignupRequest {
      *
      * Example with custom validator:
      * @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$")
+     *
+     * @NotBreached: Rejects passwords from the offline breach list,
+     * when one is configured (see BreachedPasswordFilter)
      */
     @NotBlank(message = "Password is required")
     @Size(min = 6, max = 40, message = "Password must be between 6 and 40 characters")
+    @NotBreached
     private String password;
 
     /*
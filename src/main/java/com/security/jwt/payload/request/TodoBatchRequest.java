@@ -0,0 +1,154 @@
+package com.security.jwt.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TODO BATCH REQUEST DTO
+ *
+ * Many todo changes sent in ONE request to POST /api/todos/batch
+ *
+ * Request body (every list is optional):
+ * {
+ *   "create": [ { "title": "Buy milk", "description": "2 liters" } ],
+ *   "update": [ { "id": 5, "title": "Buy bread", "description": null, "completed": true } ],
+ *   "toggle": [ 7, 8 ],
+ *   "delete": [ 9 ]
+ * }
+ *
+ * Why a batch endpoint?
+ * - Sync clients send hundreds of changes at once
+ * - One request = one authentication, one transaction, batched SQL
+ * - Instead of hundreds of requests each doing all of that
+ *
+ * Validation:
+ * - Each item is validated on its own (see TodoBatchService)
+ * - One invalid item does not reject the others
+ */
+public class TodoBatchRequest {
+
+    /*
+     * NEW TODOS
+     * Same constraints as the Todo entity (title required, max lengths)
+     */
+    private List<TodoItem> create = new ArrayList<>();
+
+    /*
+     * UPDATED TODOS
+     * Same fields as PUT /api/todos/{id}, plus the id
+     */
+    private List<TodoUpdate> update = new ArrayList<>();
+
+    /*
+     * IDS OF TODOS TO TOGGLE
+     */
+    private List<Long> toggle = new ArrayList<>();
+
+    /*
+     * IDS OF TODOS TO DELETE
+     */
+    private List<Long> delete = new ArrayList<>();
+
+    /**
+     * @return Total number of operations in this batch
+     */
+    public int size() {
+        return create.size() + update.size() + toggle.size() + delete.size();
+    }
+
+    public List<TodoItem> getCreate() {
+        return create;
+    }
+
+    public void setCreate(List<TodoItem> create) {
+        this.create = create != null ? create : new ArrayList<>();
+    }
+
+    public List<TodoUpdate> getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(List<TodoUpdate> update) {
+        this.update = update != null ? update : new ArrayList<>();
+    }
+
+    public List<Long> getToggle() {
+        return toggle;
+    }
+
+    public void setToggle(List<Long> toggle) {
+        this.toggle = toggle != null ? toggle : new ArrayList<>();
+    }
+
+    public List<Long> getDelete() {
+        return delete;
+    }
+
+    public void setDelete(List<Long> delete) {
+        this.delete = delete != null ? delete : new ArrayList<>();
+    }
+
+    /**
+     * TODO ITEM
+     *
+     * Fields of a new todo (same rules as the Todo entity)
+     */
+    public static class TodoItem {
+
+        @NotBlank(message = "Title is required")
+        @Size(max = 100, message = "Title cannot exceed 100 characters")
+        private String title;
+
+        @Size(max = 500, message = "Description cannot exceed 500 characters")
+        private String description;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * TODO UPDATE
+     *
+     * A todo item plus the id of the todo to change
+     */
+    public static class TodoUpdate extends TodoItem {
+
+        @NotNull(message = "Id is required")
+        private Long id;
+
+        private Boolean completed;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Boolean getCompleted() {
+            return completed;
+        }
+
+        public void setCompleted(Boolean completed) {
+            this.completed = completed;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.security.jwt.payload.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * TODO CURSOR
+ *
+ * Position in a user's todo list for keyset (cursor) pagination
+ *
+ * What is keyset pagination?
+ * - Instead of "skip N rows" (OFFSET), we say "rows after this one"
+ * - The position is the sort key of the last row we returned:
+ *   (createdAt, id)
+ * - The database jumps straight to that position using the index
+ * - Page 1000 is as fast as page 1 (OFFSET gets slower the deeper you go)
+ *
+ * Why (createdAt, id) and not just createdAt?
+ * - Two todos can have the same createdAt
+ * - id breaks the tie, so every row has a unique position
+ *
+ * Opaque format:
+ * - Sent to the client as a URL-safe Base64 string
+ * - Clients must treat it as a black box and just send it back
+ * - Example: GET /api/todos?limit=50&cursor=MjAyNC0wMS0xNVQxMDozMDowMHw0Mg
+ *
+ * Immutable value object
+ */
+public final class TodoCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public TodoCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * ENCODE
+     *
+     * @return Opaque cursor string for the client
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * DECODE
+     *
+     * @param cursor - Cursor string received from the client
+     * @return Decoded cursor
+     * @throws IllegalArgumentException if the cursor is not one we issued
+     */
+    public static TodoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TodoCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
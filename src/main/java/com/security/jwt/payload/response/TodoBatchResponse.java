@@ -0,0 +1,98 @@
+package com.security.jwt.payload.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TODO BATCH RESPONSE DTO
+ *
+ * Result of POST /api/todos/batch, one entry per operation
+ *
+ * Response JSON format:
+ * {
+ *   "succeeded": 3,
+ *   "failed": 1,
+ *   "results": [
+ *     { "operation": "create", "index": 0, "id": 12, "status": 201, "error": null },
+ *     { "operation": "update", "index": 0, "id": 5,  "status": 200, "error": null },
+ *     { "operation": "toggle", "index": 0, "id": 7,  "status": 404, "error": "Todo not found" },
+ *     { "operation": "delete", "index": 0, "id": 9,  "status": 200, "error": null }
+ *   ]
+ * }
+ *
+ * index: Position of the item in its request list (create[0], toggle[0], ...)
+ * status: HTTP status the single-item endpoint would have returned
+ */
+public class TodoBatchResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results = new ArrayList<>();
+
+    /**
+     * Record a successful operation
+     */
+    public void success(String operation, int index, Long id, int status) {
+        results.add(new ItemResult(operation, index, id, status, null));
+        succeeded++;
+    }
+
+    /**
+     * Record a failed operation
+     */
+    public void failure(String operation, int index, Long id, int status, String error) {
+        results.add(new ItemResult(operation, index, id, status, error));
+        failed++;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    /**
+     * RESULT OF ONE OPERATION
+     */
+    public static class ItemResult {
+        private final String operation;
+        private final int index;
+        private final Long id;
+        private final int status;
+        private final String error;
+
+        public ItemResult(String operation, int index, Long id, int status, String error) {
+            this.operation = operation;
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.error = error;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
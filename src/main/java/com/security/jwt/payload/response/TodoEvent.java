@@ -0,0 +1,108 @@
+package com.security.jwt.payload.response;
+
+import com.security.jwt.models.Todo;
+
+import java.time.LocalDateTime;
+
+/**
+ * TODO EVENT DTO
+ *
+ * One change sent on the GET /api/todos/events stream (see TodoEventPublisher)
+ *
+ * Types:
+ * - create, update, toggle: The todo's new state is included
+ * - delete: Only todoId is set
+ * - refresh: Many todos changed at once (batch, import, complete-all, ...)
+ *   or missed events can't be replayed: reload the list
+ *
+ * SSE format on the wire:
+ * id: 42
+ * event: toggle
+ * data: {"id":42,"type":"toggle","todoId":7,"title":"Learn React",...}
+ *
+ * id: Increasing event number, sent back by the client as Last-Event-ID
+ *     when it reconnects
+ */
+public class TodoEvent {
+
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String TOGGLE = "toggle";
+    public static final String DELETE = "delete";
+    public static final String REFRESH = "refresh";
+
+    private final long id;
+    private final String type;
+    private final Long todoId;
+    private final String title;
+    private final String description;
+    private final Boolean completed;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private TodoEvent(long id, String type, Long todoId, String title, String description,
+                      Boolean completed, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.type = type;
+        this.todoId = todoId;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Event carrying a snapshot of the todo (create, update, toggle)
+     */
+    public static TodoEvent of(long id, String type, Todo todo) {
+        return new TodoEvent(id, type, todo.getId(), todo.getTitle(), todo.getDescription(),
+                todo.getCompleted(), todo.getCreatedAt(), todo.getUpdatedAt());
+    }
+
+    /**
+     * Event with only a todo id (delete)
+     */
+    public static TodoEvent deleted(long id, Long todoId) {
+        return new TodoEvent(id, DELETE, todoId, null, null, null, null, null);
+    }
+
+    /**
+     * Event telling the client to reload its list
+     */
+    public static TodoEvent refresh(long id) {
+        return new TodoEvent(id, REFRESH, null, null, null, null, null, null);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getTodoId() {
+        return todoId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
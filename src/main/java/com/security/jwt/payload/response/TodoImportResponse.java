@@ -0,0 +1,86 @@
+package com.security.jwt.payload.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TODO IMPORT RESPONSE DTO
+ *
+ * Result of POST /api/todos/import
+ *
+ * Response JSON format:
+ * {
+ *   "accepted": 9998,
+ *   "rejected": 2,
+ *   "errors": [
+ *     { "line": 17, "error": "Title is required" },
+ *     { "line": 4031, "error": "Malformed record" }
+ *   ]
+ * }
+ *
+ * line: Line of the upload where the rejected record starts
+ * errors: Only the first few errors are listed (todos.import.max-errors),
+ *         rejected always has the full count
+ */
+public class TodoImportResponse {
+
+    private long accepted;
+    private long rejected;
+    private List<RecordError> errors = new ArrayList<>();
+
+    private final int maxErrors;
+
+    public TodoImportResponse(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Record saved todos
+     */
+    public void accepted(int count) {
+        accepted += count;
+    }
+
+    /**
+     * Record a rejected record (listed only while under maxErrors)
+     */
+    public void rejected(long line, String error) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RecordError(line, error));
+        }
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * ONE REJECTED RECORD
+     */
+    public static class RecordError {
+        private final long line;
+        private final String error;
+
+        public RecordError(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
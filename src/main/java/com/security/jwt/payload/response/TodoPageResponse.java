@@ -0,0 +1,40 @@
+package com.security.jwt.payload.response;
+
+import java.util.List;
+
+/**
+ * TODO PAGE RESPONSE DTO
+ *
+ * One page of todos from a keyset (cursor) paginated endpoint
+ *
+ * Response JSON format:
+ * {
+ *   "items": [ { "id": 1, "title": "Learn React", ... }, ... ],
+ *   "next": "MjAyNC0wMS0xNVQxMDozMDowMHw0Mg"
+ * }
+ *
+ * next:
+ * - Opaque cursor for the following page (see TodoCursor)
+ * - Send it back as ?cursor=... to get the next page
+ * - null when this is the last page
+ *
+ * @param <T> - Type of the items in the page
+ */
+public class TodoPageResponse<T> {
+
+    private List<T> items;
+    private String next;
+
+    public TodoPageResponse(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
@@ -0,0 +1,46 @@
+package com.security.jwt.payload.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * TODO VIEW (read-only projection)
+ *
+ * The fields of a todo that list endpoints send to the client
+ *
+ * What is a projection?
+ * - An interface with getters matching entity property names
+ * - Spring Data JPA implements it for us at runtime
+ * - The query selects ONLY these columns, not whole Todo entities
+ *
+ * Why not return Todo entities from list endpoints?
+ * - Managed entities are tracked by the persistence context
+ *   (Hibernate keeps a snapshot of each one for dirty checking)
+ * - Each Todo carries a lazy user proxy Jackson has to skip
+ * - A projection is a plain read-only row: less memory, less GC work
+ *
+ * Used by TodoRepository list and page queries
+ *
+ * JSON format (same as a serialized Todo):
+ * {
+ *   "id": 1,
+ *   "title": "Learn React",
+ *   "description": "Complete React tutorial",
+ *   "completed": false,
+ *   "createdAt": "2024-01-15T10:30:00",
+ *   "updatedAt": "2024-01-15T10:30:00"
+ * }
+ */
+public interface TodoView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    Boolean getCompleted();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
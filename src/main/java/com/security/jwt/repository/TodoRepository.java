@@ -1,11 +1,25 @@
 package com.security.jwt.repository;
 
 import com.security.jwt.models.Todo;
+import com.security.jwt.payload.response.TodoView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * TODO REPOSITORY
@@ -22,6 +36,24 @@ import java.util.Optional;
 @Repository
 public interface TodoRepository extends JpaRepository<Todo, Long> {
 
+    /**
+     * TODO VERSION (projection of findVersionByUserId)
+     */
+    interface TodoVersion {
+        Long getCount();
+
+        LocalDateTime getLastUpdated();
+    }
+
+    /*
+     * TODO VIEW COLUMNS
+     *
+     * JPQL select list for TodoView projections in @Query methods
+     * Each alias must match a TodoView getter (id -> getId(), ...)
+     */
+    String VIEW_COLUMNS = "t.id AS id, t.title AS title, t.description AS description, "
+            + "t.completed AS completed, t.createdAt AS createdAt, t.updatedAt AS updatedAt";
+
     /**
      * FIND ALL TODOS BY USER ID
      *
@@ -35,10 +67,14 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      * - UserId: Property path (user.id)
      * - Spring traverses user relationship to get user.id
      *
+     * Returns TodoView projections (only the columns the API sends),
+     * in a read-only transaction
+     *
      * @param userId - The user's ID
      * @return List of todos belonging to the user
      */
-    List<Todo> findByUserId(Long userId);
+    @Transactional(readOnly = true)
+    List<TodoView> findByUserId(Long userId);
 
     /**
      * FIND TODO BY ID AND USER ID
@@ -69,6 +105,40 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      */
     Optional<Todo> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * FIND TODOS BY IDS AND USER ID
+     *
+     * Loads many of a user's todos in ONE query (used by TodoBatchService)
+     *
+     * Generated SQL:
+     * SELECT * FROM todos WHERE user_id = ? AND id IN (?, ?, ...)
+     *
+     * Ids that don't exist or belong to another user are simply missing
+     * from the result
+     *
+     * @param userId - User ID
+     * @param ids - Todo IDs
+     * @return The user's todos with those IDs
+     */
+    List<Todo> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * FIND A TODO'S LAST UPDATE TIME
+     *
+     * Used for the ETag of GET /api/todos/{id}
+     * Reads one column instead of the whole todo
+     *
+     * Generated SQL:
+     * SELECT updated_at FROM todos WHERE id = ? AND user_id = ?
+     *
+     * @param id - Todo ID
+     * @param userId - User ID
+     * @return updatedAt, or empty if not found or owned by another user
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT t.updatedAt FROM Todo t WHERE t.id = :id AND t.user.id = :userId")
+    Optional<LocalDateTime> findUpdatedAtByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
     /**
      * DELETE TODO BY ID AND USER ID
      *
@@ -112,6 +182,23 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      */
     Long countByUserId(Long userId);
 
+    /**
+     * VERSION OF A USER'S TODOS
+     *
+     * Count and newest updatedAt of all the user's todos, in one row
+     * - Any create, update or delete changes at least one of them
+     * - Used for ETags of the list and count endpoints
+     *
+     * Generated SQL:
+     * SELECT COUNT(*), MAX(updated_at) FROM todos WHERE user_id = ?
+     *
+     * @param userId - User ID
+     * @return Count and last update time (null when the user has no todos)
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(t) AS count, MAX(t.updatedAt) AS lastUpdated FROM Todo t WHERE t.user.id = :userId")
+    TodoVersion findVersionByUserId(@Param("userId") Long userId);
+
     /**
      * FIND COMPLETED TODOS BY USER ID
      *
@@ -126,11 +213,170 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      * - And: SQL AND
      * - Completed: AND completed = ?
      *
+     * Returns TodoView projections in a read-only transaction
+     *
      * @param userId - User ID
      * @param completed - Completion status (true/false)
      * @return List of todos matching criteria
      */
-    List<Todo> findByUserIdAndCompleted(Long userId, Boolean completed);
+    @Transactional(readOnly = true)
+    List<TodoView> findByUserIdAndCompleted(Long userId, Boolean completed);
+
+    /*
+     * ============================================
+     * KEYSET (CURSOR) PAGINATION
+     * ============================================
+     *
+     * Pages are ordered by (createdAt, id) and read with
+     * "WHERE (created_at, id) > (last seen row)" instead of OFFSET
+     *
+     * Backed by the composite index on todos (user_id, created_at, id)
+     * declared on the Todo entity, so every page is an index range scan
+     * no matter how deep the client has paged
+     *
+     * Pageable is only used for its page size (always page 0):
+     * - PageRequest.of(0, size) adds LIMIT size to the query
+     * - Returning List (not Page) means no extra COUNT(*) query
+     *
+     * All page queries return TodoView projections in read-only transactions
+     * - @Query versions alias each column to its TodoView property name
+     */
+
+    /**
+     * FIRST PAGE OF A USER'S TODOS
+     *
+     * Generated SQL:
+     * SELECT * FROM todos WHERE user_id = ?
+     * ORDER BY created_at ASC, id ASC LIMIT ?
+     *
+     * @param userId - User ID
+     * @param pageable - Page size (use PageRequest.of(0, size))
+     * @return Up to size todos, oldest first
+     */
+    @Transactional(readOnly = true)
+    List<TodoView> findByUserIdOrderByCreatedAtAscIdAsc(Long userId, Pageable pageable);
+
+    /**
+     * NEXT PAGE OF A USER'S TODOS
+     *
+     * Returns the todos that sort strictly after the cursor position
+     *
+     * @param userId - User ID
+     * @param createdAt - createdAt of the last todo on the previous page
+     * @param id - id of the last todo on the previous page
+     * @param pageable - Page size (use PageRequest.of(0, size))
+     * @return Up to size todos after the cursor
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT " + VIEW_COLUMNS + " FROM Todo t WHERE t.user.id = :userId "
+            + "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) "
+            + "ORDER BY t.createdAt ASC, t.id ASC")
+    List<TodoView> findPageAfter(@Param("userId") Long userId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    /**
+     * FIRST PAGE OF A USER'S TODOS BY COMPLETION STATUS
+     *
+     * Same as findByUserIdOrderByCreatedAtAscIdAsc, filtered by completed
+     */
+    @Transactional(readOnly = true)
+    List<TodoView> findByUserIdAndCompletedOrderByCreatedAtAscIdAsc(Long userId, Boolean completed,
+                                                                     Pageable pageable);
+
+    /**
+     * NEXT PAGE OF A USER'S TODOS BY COMPLETION STATUS
+     *
+     * Same as findPageAfter, filtered by completed
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT " + VIEW_COLUMNS + " FROM Todo t WHERE t.user.id = :userId AND t.completed = :completed "
+            + "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) "
+            + "ORDER BY t.createdAt ASC, t.id ASC")
+    List<TodoView> findPageAfterByCompleted(@Param("userId") Long userId,
+                                            @Param("completed") Boolean completed,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    /**
+     * STREAM ALL OF A USER'S TODOS (export)
+     *
+     * Rows are read from a forward-only JDBC cursor while the caller
+     * consumes the Stream, instead of loading everything into a List
+     *
+     * @QueryHints:
+     * - HINT_FETCH_SIZE: Rows fetched per round trip from the database
+     * - HINT_READ_ONLY: No dirty-checking snapshot is kept for each todo
+     *
+     * Must be called inside a transaction and the Stream must be closed
+     * (use try-with-resources), see TodoExportService
+     *
+     * @param userId - User ID
+     * @return Stream of the user's todos, oldest first
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t WHERE t.user.id = :userId ORDER BY t.createdAt ASC, t.id ASC")
+    Stream<Todo> streamByUserId(@Param("userId") Long userId);
+
+    /*
+     * ============================================
+     * SET-BASED BULK CHANGES
+     * ============================================
+     *
+     * One UPDATE/DELETE statement for all of a user's matching todos,
+     * instead of loading, changing and saving each todo
+     *
+     * @Modifying: The @Query changes data (not a SELECT)
+     * @Transactional: Modifying queries must run in a transaction
+     *
+     * Bulk statements bypass the persistence context:
+     * - @UpdateTimestamp is not applied, so updatedAt is set explicitly
+     * - Already loaded Todo entities are not refreshed
+     */
+
+    /**
+     * SET COMPLETED ON ALL OF A USER'S TODOS
+     *
+     * Generated SQL:
+     * UPDATE todos SET completed = ?, updated_at = ?
+     * WHERE user_id = ? AND completed <> ?
+     *
+     * Todos already in the requested state are left untouched
+     *
+     * @param userId - User ID
+     * @param completed - New completion status
+     * @param now - New updatedAt value
+     * @return Number of todos changed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Todo t SET t.completed = :completed, t.updatedAt = :now "
+            + "WHERE t.user.id = :userId AND t.completed <> :completed")
+    int updateCompletedByUserId(@Param("userId") Long userId,
+                                @Param("completed") Boolean completed,
+                                @Param("now") LocalDateTime now);
+
+    /**
+     * DELETE ALL OF A USER'S COMPLETED TODOS
+     *
+     * Generated SQL:
+     * DELETE FROM todos WHERE user_id = ? AND completed = true
+     *
+     * Unlike a derived deleteBy... method, this does NOT load each todo
+     * before removing it
+     *
+     * @param userId - User ID
+     * @return Number of todos deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Todo t WHERE t.user.id = :userId AND t.completed = true")
+    int deleteCompletedByUserId(@Param("userId") Long userId);
 }
 
 /*
@@ -1,10 +1,21 @@
 package com.security.jwt.repository;
 
 import com.security.jwt.models.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * USER REPOSITORY
@@ -75,6 +86,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * FIND USER BY USERNAME WITH ROLES
+     *
+     * Same as findByUsername(), but loads the roles in the SAME query
+     *
+     * Why?
+     * - roles are FetchType.LAZY on User
+     * - findByUsername() + user.getRoles() runs TWO queries:
+     *   SELECT * FROM users WHERE username = ?
+     *   SELECT * FROM user_roles JOIN roles ... WHERE user_id = ?
+     * - Authentication always needs the roles, so load them up front
+     *
+     * @EntityGraph(attributePaths = "roles"):
+     * - Tells JPA to fetch the roles association eagerly for this query
+     * - Generates a single SELECT with LEFT JOIN on user_roles and roles
+     *
+     * Method name:
+     * - "WithRoles" between find and By is just a descriptive label
+     * - Spring Data ignores it when deriving the query
+     *
+     * Used by UserDetailsServiceImpl on login and on every JWT request
+     *
+     * @param username - The username to search for
+     * @return Optional containing User with initialized roles
+     */
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
     /**
      * CHECK IF USERNAME EXISTS
      *
@@ -118,6 +157,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Boolean existsByEmail(String email);
 
+    /**
+     * UPDATE PASSWORD HASH
+     *
+     * Replaces a user's password hash in ONE statement (no SELECT first)
+     * Used to upgrade old, weaker BCrypt hashes after a successful login
+     *
+     * Generated SQL:
+     * UPDATE users SET password = ? WHERE username = ?
+     *
+     * @param username - The user's username
+     * @param password - New BCrypt hash (NOT a plain password)
+     * @return Number of users updated (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * STREAM ALL USERNAMES
+     *
+     * Used once at startup to fill UserExistenceFilter
+     * - Only the username column, no entities
+     * - Stream: Rows are read in batches of HINT_FETCH_SIZE, not all at once
+     * - Must be consumed inside a transaction and closed
+     *
+     * Generated SQL: SELECT username FROM users
+     *
+     * @return Stream of usernames
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.username FROM User u")
+    Stream<String> streamAllUsernames();
+
     /*
      * ============================================
      * INHERITED METHODS FROM JpaRepository
@@ -2,8 +2,17 @@ package com.security.jwt.security;
 
 import com.security.jwt.security.jwt.AuthEntryPointJwt;
 import com.security.jwt.security.jwt.AuthTokenFilter;
+import com.security.jwt.security.ratelimit.InMemoryLoginRateLimitStore;
+import com.security.jwt.security.ratelimit.LoginRateLimitFilter;
+import com.security.jwt.security.ratelimit.LoginRateLimitStore;
+import com.security.jwt.security.services.BCryptStrength;
+import com.security.jwt.security.services.BoundedPasswordEncoder;
 import com.security.jwt.security.services.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -64,6 +73,38 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler; // Handles auth errors
 
+    @Autowired
+    private MeterRegistry meterRegistry; // Password hashing metrics
+
+    /*
+     * PASSWORD HASHING BULKHEAD (see BoundedPasswordEncoder)
+     *
+     * security.password-hashing.threads: Hashes running at once
+     *   (0 = half of the CPU cores, at least 1)
+     * security.password-hashing.queue-capacity: Hashes allowed to wait
+     */
+    @Value("${security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:100}")
+    private int passwordHashingQueueCapacity;
+
+    /*
+     * BCRYPT STRENGTH (see BCryptStrength)
+     *
+     * security.password-hashing.strength: Strength (minimum when calibrating)
+     * security.password-hashing.calibrate: Pick the strength by timing hashes
+     * security.password-hashing.target-ms: Time per hash to aim for
+     */
+    @Value("${security.password-hashing.strength:10}")
+    private int passwordHashingStrength;
+
+    @Value("${security.password-hashing.calibrate:false}")
+    private boolean passwordHashingCalibrate;
+
+    @Value("${security.password-hashing.target-ms:250}")
+    private long passwordHashingTargetMs;
+
     /**
      * AUTHENTICATION JWT TOKEN FILTER BEAN
      *
@@ -86,6 +127,50 @@ public class WebSecurityConfig {
         return new AuthTokenFilter();
     }
 
+    /*
+     * LOGIN RATE LIMITING (see LoginRateLimitFilter)
+     *
+     * security.login-rate-limit.maximum-keys: Most IP/username buckets
+     *   kept in memory at once
+     */
+    @Value("${security.login-rate-limit.maximum-keys:100000}")
+    private long loginRateLimitMaximumKeys;
+
+    /**
+     * LOGIN RATE LIMIT FILTER BEAN
+     *
+     * Throttles POST /api/auth/signin per IP and per username,
+     * before any password hashing
+     *
+     * @return LoginRateLimitFilter instance
+     */
+    @Bean
+    public LoginRateLimitFilter loginRateLimitFilter() {
+        return new LoginRateLimitFilter();
+    }
+
+    /**
+     * LOGIN RATE LIMIT STORE BEAN
+     *
+     * Token buckets in this JVM
+     *
+     * @ConditionalOnProperty:
+     * - Created when security.login-rate-limit.store=memory (the default)
+     * - To share the limits across nodes, set another value (e.g. redis)
+     *   and declare your own LoginRateLimitStore bean for it
+     * - A property, not @ConditionalOnMissingBean: that only works reliably
+     *   in auto-configuration, in a @Configuration it depends on the order
+     *   the bean definitions are read
+     *
+     * @return InMemoryLoginRateLimitStore instance
+     */
+    @Bean
+    @ConditionalOnProperty(name = "security.login-rate-limit.store", havingValue = "memory",
+            matchIfMissing = true)
+    public LoginRateLimitStore loginRateLimitStore() {
+        return new InMemoryLoginRateLimitStore(loginRateLimitMaximumKeys);
+    }
+
     /**
      * DAO AUTHENTICATION PROVIDER
      *
@@ -136,6 +221,15 @@ public class WebSecurityConfig {
          */
         authProvider.setPasswordEncoder(passwordEncoder());
 
+        /*
+         * SET PASSWORD UPGRADE SERVICE
+         *
+         * After a successful login, if the stored hash is weaker than the
+         * current BCrypt strength, the provider re-hashes the password and
+         * calls userDetailsService.updatePassword() to store it
+         */
+        authProvider.setUserDetailsPasswordService(userDetailsService);
+
         return authProvider;
     }
 
@@ -212,17 +306,30 @@ public class WebSecurityConfig {
      * - Plain text: Obviously terrible, never use!
      * - BCrypt: Slow by design, resistant to brute force
      *
-     * Cost factor (10):
+     * Cost factor (security.password-hashing.strength, default 10):
      * - Higher = slower = more secure
      * - 10 is good balance (2^10 = 1024 iterations)
      * - Can increase to 12-14 for higher security
      * - Don't go too high or login becomes slow
+     * - Or let BCryptStrength calibrate it for this machine
+     * - Raising it upgrades old hashes on their next login
+     *
+     * Bulkhead:
+     * - BCrypt runs on BoundedPasswordEncoder's own small thread pool
+     * - A login storm can only use that pool, not every CPU core
+     * - When its queue is full, logins/signups get 503 right away
      *
-     * @return BCryptPasswordEncoder instance
+     * @return BCryptPasswordEncoder wrapped in a BoundedPasswordEncoder
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = passwordHashingThreads > 0
+                ? passwordHashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int strength = BCryptStrength.resolve(passwordHashingStrength, passwordHashingCalibrate,
+                passwordHashingTargetMs);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads,
+                passwordHashingQueueCapacity, meterRegistry);
     }
 
     /**
@@ -396,6 +503,16 @@ public class WebSecurityConfig {
                  */
                 .requestMatchers("/h2-console/**").permitAll()
 
+                /*
+                 * ASYNC DISPATCHES
+                 *
+                 * Streaming responses (e.g. GET /api/todos/export) finish
+                 * in a second, ASYNC dispatch of the same request
+                 * - The original request was already authenticated
+                 * - AuthTokenFilter does not run again on that dispatch
+                 */
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 /*
                  * TEST ENDPOINTS (Optional)
                  *
@@ -410,6 +527,16 @@ public class WebSecurityConfig {
                  */
                 .requestMatchers("/api/test/**").permitAll()
 
+                /*
+                 * METRICS (admins only)
+                 *
+                 * /actuator/metrics shows request counts per URI, cache
+                 * and login statistics, pool sizes, ...
+                 * - Not for every signed-in user: ROLE_ADMIN only
+                 * - /actuator/health stays open to any authenticated user
+                 */
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
+
                 /*
                  * ALL OTHER REQUESTS
                  *
@@ -508,6 +635,16 @@ public class WebSecurityConfig {
         http.addFilterBefore(authenticationJwtTokenFilter(),
                 UsernamePasswordAuthenticationFilter.class);
 
+        /*
+         * LOGIN RATE LIMIT FILTER REGISTRATION
+         *
+         * Also before UsernamePasswordAuthenticationFilter, after the JWT
+         * filter: throttled logins never reach AuthController, so no
+         * BCrypt work is done for them
+         */
+        http.addFilterBefore(loginRateLimitFilter(),
+                UsernamePasswordAuthenticationFilter.class);
+
         /*
          * BUILD AND RETURN
          *
@@ -1,5 +1,7 @@
 package com.security.jwt.security.jwt;
 
+import com.security.jwt.security.services.UserDetailsCache;
+import com.security.jwt.security.services.UserDetailsImpl;
 import com.security.jwt.security.services.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -41,8 +43,8 @@ import java.io.IOException;
  *
  * This Filter's Job:
  * 1. Extract JWT token from Authorization header
- * 2. Validate the token
- * 3. Extract username from token
+ * 2. Verify the token (single parse)
+ * 3. Extract username from the verified claims
  * 4. Load user details from database
  * 5. Set authentication in SecurityContext
  * 6. Let request continue to controller
@@ -64,6 +66,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService; // For loading user from database
 
+    @Autowired
+    private UserDetailsCache userDetailsCache; // Short-lived cache in front of the database
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     /**
@@ -75,8 +80,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
      * Request Flow:
      * 1. Parse Authorization header
      * 2. Extract JWT token
-     * 3. Validate token
-     * 4. Extract username
+     * 3. Verify token (single parse)
+     * 4. Read username from claims
      * 5. Load user details
      * 6. Create authentication
      * 7. Set in SecurityContext
@@ -107,11 +112,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
 
             /*
-             * STEP 2: VALIDATE TOKEN AND PROCESS
+             * STEP 2: VERIFY TOKEN (ONCE)
              *
-             * Only proceed if:
-             * - jwt is not null (token was provided)
-             * - jwt is valid (not tampered, not expired)
+             * jwtUtils.parseJwtToken():
+             * - Parses the token and verifies its signature and expiry
+             * - Returns the verified claims, or the reason it was rejected
+             * - The signature is checked only ONCE per request
              *
              * If token is null:
              * - User didn't provide Authorization header
@@ -119,29 +125,37 @@ public class AuthTokenFilter extends OncePerRequestFilter {
              * - Skip authentication, let Spring Security handle it
              *
              * If token is invalid:
-             * - validateJwtToken() returns false
+             * - result.isValid() returns false
              * - Skip authentication
              * - If endpoint is protected, AuthEntryPointJwt handles error
              */
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+            JwtValidationResult result = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+
+            if (result != null && result.isValid()) {
 
                 /*
-                 * STEP 3: EXTRACT USERNAME FROM TOKEN
+                 * STEP 3: EXTRACT USERNAME FROM VERIFIED CLAIMS
                  *
-                 * jwtUtils.getUsernameFromJwtToken():
-                 * - Parses the JWT token
-                 * - Extracts the "subject" claim
-                 * - Returns username string
+                 * result.getUsername():
+                 * - Reads the "subject" claim from the claims we just verified
+                 * - No second parse, no second signature check
                  *
                  * The username is what we set when generating the token
                  * See JwtUtils.generateJwtToken() where we set .subject(username)
                  */
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+                String username = result.getUsername();
 
                 /*
-                 * STEP 4: LOAD USER DETAILS FROM DATABASE
+                 * STEP 4: BUILD USER DETAILS
                  *
-                 * Why load from database if we have token?
+                 * Option A - Stateless principal (jwt.stateless-principal.enabled=true):
+                 * - jwtUtils.getUserDetailsFromClaims() builds the user from
+                 *   the id, email and roles claims we just verified
+                 * - No database query at all
+                 * - Returns null if the mode is off, the claims are missing,
+                 *   or the token is past its revalidation interval
+                 *
+                 * Option B - Load from database (default, and fallback for A):
                  * - Token might be old, user data might have changed
                  * - User roles might have been updated
                  * - User might have been disabled/locked
@@ -152,10 +166,37 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                  * - Loads user with current roles
                  * - Returns UserDetailsImpl
                  *
+                 * userDetailsCache.get():
+                 * - Returns the user if it was loaded in the last ttl-ms
+                 * - Otherwise calls loadUserByUsername() and caches the result
+                 * - See UserDetailsCache (security.user-cache.*)
+                 *
                  * This is the same service used during login
                  * See UserDetailsServiceImpl.loadUserByUsername()
                  */
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = jwtUtils.getUserDetailsFromClaims(result.getClaims());
+                if (userDetails == null) {
+                    if (jwtUtils.isStatelessPrincipalEnabled()) {
+                        /*
+                         * About to re-issue the token: its roles must come
+                         * from the database, not from a cache entry up to
+                         * ttl-ms old (they would get a fresh iat and be
+                         * trusted for another revalidation interval)
+                         */
+                        userDetailsCache.invalidate(username);
+                    }
+                    userDetails = userDetailsCache.get(username, userDetailsService::loadUserByUsername);
+
+                    /*
+                     * Stateless mode: the claims were too old (or missing),
+                     * so hand the client a token with the fresh ones; its
+                     * next requests skip the database again
+                     */
+                    String refreshed = jwtUtils.refreshJwtToken((UserDetailsImpl) userDetails, result.getClaims());
+                    if (refreshed != null) {
+                        response.setHeader(JwtUtils.REFRESHED_TOKEN_HEADER, refreshed);
+                    }
+                }
 
                 /*
                  * STEP 5: CREATE AUTHENTICATION OBJECT
@@ -380,8 +421,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
  * Filter Execution:
  * 1. doFilterInternal() is called
  * 2. parseJwt() extracts token: "eyJhbGci..."
- * 3. jwtUtils.validateJwtToken() validates: true
- * 4. jwtUtils.getUsernameFromJwtToken() extracts: "john"
+ * 3. jwtUtils.parseJwtToken() verifies once: valid
+ * 4. result.getUsername() reads subject: "john"
  * 5. userDetailsService.loadUserByUsername("john") queries database
  * 6. Returns UserDetailsImpl with roles: [ROLE_USER, ROLE_ADMIN]
  * 7. Creates UsernamePasswordAuthenticationToken
@@ -0,0 +1,141 @@
+package com.security.jwt.security.jwt;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+
+/**
+ * JWT KEY HOLDER
+ *
+ * Holds the decoded HMAC signing key and a ready-to-use JwtParser
+ *
+ * Why a separate holder?
+ * - Decoding the Base64 secret and building a SecretKey is not free
+ * - Building a new parser on every call allocates a builder, a parser
+ *   and its internal lookup tables
+ * - JwtUtils runs on EVERY authenticated request (via AuthTokenFilter)
+ * - So we do this work ONCE at startup and reuse the result
+ *
+ * Thread safety:
+ * - SecretKey and JwtParser (jjwt 0.12) are immutable and thread-safe
+ * - Both are kept together in one immutable KeyMaterial snapshot
+ * - The snapshot is published through a volatile field
+ * - Readers never lock, they just read the current snapshot
+ *
+ * Secret rotation:
+ * - refresh(newSecret) swaps the snapshot only if the secret changed
+ * - Calling it with the same secret is a cheap no-op
+ *
+ * @Component: Singleton, shared by JwtUtils
+ */
+@Component
+public class JwtKeyHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyHolder.class);
+
+    /*
+     * JWT SECRET KEY
+     *
+     * Same property JwtUtils used before (jwt.secret)
+     * Only read once, in init()
+     */
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    /*
+     * CURRENT KEY MATERIAL
+     *
+     * volatile: A new snapshot written by refresh() is immediately
+     * visible to all request threads
+     */
+    private volatile KeyMaterial current;
+
+    /**
+     * INITIALIZE
+     *
+     * @PostConstruct: Runs once after @Value injection
+     * Decodes the configured secret and builds the parser
+     */
+    @PostConstruct
+    void init() {
+        this.current = KeyMaterial.from(jwtSecret);
+    }
+
+    /**
+     * GET SIGNING KEY
+     *
+     * @return Decoded HMAC key used for signing tokens
+     */
+    public SecretKey getSigningKey() {
+        return current.signingKey;
+    }
+
+    /**
+     * GET PARSER
+     *
+     * @return Immutable parser that verifies signatures with the current key
+     */
+    public JwtParser getParser() {
+        return current.parser;
+    }
+
+    /**
+     * REFRESH KEY MATERIAL
+     *
+     * Rebuilds the key and parser when the secret changes
+     * (e.g. after a secret rotation picked up from a vault)
+     *
+     * Tokens signed with the old secret become invalid immediately
+     *
+     * @param newSecret - The new Base64 encoded secret
+     * @return true if the key was replaced, false if the secret was unchanged
+     */
+    public synchronized boolean refresh(String newSecret) {
+        if (newSecret == null || newSecret.equals(current.secret)) {
+            return false;
+        }
+        this.current = KeyMaterial.from(newSecret);
+        logger.info("JWT signing key refreshed");
+        return true;
+    }
+
+    /*
+     * KEY MATERIAL SNAPSHOT
+     *
+     * Immutable: all fields are final and set once
+     * Keeps the secret, key and parser consistent with each other
+     */
+    private static final class KeyMaterial {
+        private final String secret;
+        private final SecretKey signingKey;
+        private final JwtParser parser;
+
+        private KeyMaterial(String secret, SecretKey signingKey, JwtParser parser) {
+            this.secret = secret;
+            this.signingKey = signingKey;
+            this.parser = parser;
+        }
+
+        /*
+         * Decoders.BASE64.decode(): Decodes base64 string to bytes
+         * Keys.hmacShaKeyFor(): Creates HMAC key (SHA-256/384/512 by key length)
+         * Jwts.parser().verifyWith(key).build(): Immutable, reusable parser
+         */
+        static KeyMaterial from(String secret) {
+            byte[] keyBytes = Decoders.BASE64.decode(secret);
+            SecretKey key = Keys.hmacShaKeyFor(keyBytes);
+            JwtParser parser = Jwts.parser()
+                    .verifyWith(key)
+                    .build();
+            return new KeyMaterial(secret, key, parser);
+        }
+    }
+}
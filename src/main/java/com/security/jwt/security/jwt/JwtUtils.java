@@ -2,16 +2,20 @@ package com.security.jwt.security.jwt;
 
 import com.security.jwt.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * JWT UTILITY CLASS
@@ -45,28 +49,19 @@ public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
     /*
-     * JWT SECRET KEY
+     * JWT KEY HOLDER
      *
-     * @Value: Injects value from application.properties
-     * - ${jwt.secret} maps to the property with that name
-     * - This is the secret key used to sign and verify tokens
+     * Holds the decoded signing key and a reusable parser
+     * - The secret (jwt.secret) is decoded ONCE at startup
+     * - See JwtKeyHolder for thread safety and rotation notes
      *
      * CRITICAL SECURITY CONCEPT:
      * - The secret key is like a password for JWT tokens
      * - Anyone with this key can create valid tokens
-     * - Anyone with this key can read token contents
-     * - MUST be kept secret and secure
-     *
-     * Production best practices:
-     * - NEVER hardcode in source code
-     * - NEVER commit to version control
-     * - Use environment variables: ${JWT_SECRET}
-     * - Or use secret management: AWS Secrets Manager, HashiCorp Vault, etc.
-     * - Rotate keys periodically
-     * - Use different keys for dev/staging/production
+     * - MUST be kept secret and secure (env variable or vault in production)
      */
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    @Autowired
+    private JwtKeyHolder keyHolder;
 
     /*
      * JWT EXPIRATION TIME (in milliseconds)
@@ -92,6 +87,50 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    /*
+     * STATELESS PRINCIPAL MODE (opt-in)
+     *
+     * When enabled:
+     * - generateJwtToken() also writes id, email and roles as claims
+     * - AuthTokenFilter builds UserDetailsImpl from those verified claims
+     * - No database query per authenticated request
+     *
+     * Trade-off:
+     * - Roles in a token are a snapshot taken at login
+     * - A role change is not seen until the token is re-validated
+     *
+     * jwt.stateless-principal.revalidate-ms:
+     * - Claims are trusted only for this long after the token was issued
+     * - Older tokens fall back to loading the user from the database
+     * - Bounds how long stale roles can live
+     *
+     * Re-issue on revalidation:
+     * - The request that reloads the user also gets a new token with the
+     *   fresh claims in the X-Refreshed-Token response header
+     *   (see refreshJwtToken, AuthTokenFilter); the frontend swaps it in
+     * - So an active client hits the database about once per interval,
+     *   not on every request for the rest of the token's lifetime
+     * - The new token keeps the old expiration: the session isn't extended
+     */
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipalEnabled;
+
+    @Value("${jwt.stateless-principal.revalidate-ms:300000}")
+    private long statelessPrincipalRevalidateMs;
+
+    /*
+     * CUSTOM CLAIM NAMES
+     * Used only in stateless principal mode
+     */
+    private static final String CLAIM_USER_ID = "id";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLES = "roles";
+
+    /*
+     * Response header carrying a re-issued token (stateless principal mode)
+     */
+    public static final String REFRESHED_TOKEN_HEADER = "X-Refreshed-Token";
+
     /**
      * GENERATE JWT TOKEN
      *
@@ -116,6 +155,41 @@ public class JwtUtils {
          * - We cast it to access our custom fields
          */
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return buildToken(userPrincipal, new Date((new Date()).getTime() + jwtExpirationMs));
+    }
+
+    /**
+     * @return true if tokens carry the principal (jwt.stateless-principal.enabled)
+     */
+    public boolean isStatelessPrincipalEnabled() {
+        return statelessPrincipalEnabled;
+    }
+
+    /**
+     * RE-ISSUE A TOKEN WITH FRESH CLAIMS (stateless principal mode)
+     *
+     * Called by AuthTokenFilter after a token past its revalidation
+     * interval made it load the user from the database
+     *
+     * @param user - User as just loaded from the database
+     * @param claims - Verified claims of the old token
+     * @return New token (issued now, same expiration), or null if the
+     *         mode is disabled
+     */
+    public String refreshJwtToken(UserDetailsImpl user, Claims claims) {
+        if (!statelessPrincipalEnabled || claims.getExpiration() == null) {
+            return null;
+        }
+        return buildToken(user, claims.getExpiration());
+    }
+
+    /**
+     * BUILD AND SIGN A TOKEN
+     *
+     * @param userPrincipal - User the token is about
+     * @param expiration - Value of the "exp" claim
+     */
+    private String buildToken(UserDetailsImpl userPrincipal, Date expiration) {
 
         /*
          * BUILD JWT TOKEN
@@ -138,7 +212,7 @@ public class JwtUtils {
          * - Checked automatically by parser
          *
          * .signWith(): Signs the token with secret key
-         * - getSigningKey() creates cryptographic key from secret
+         * - keyHolder.getSigningKey() returns the key decoded at startup
          * - Uses HMAC-SHA256 algorithm by default
          * - Signature prevents token tampering
          *
@@ -146,46 +220,83 @@ public class JwtUtils {
          * - Creates the final token string
          * - Format: header.payload.signature
          */
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userPrincipal.getUsername())
                 .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .expiration(expiration);
+
+        /*
+         * STATELESS PRINCIPAL CLAIMS
+         *
+         * Only written when the mode is enabled
+         * - id: User's database ID (controllers use it to scope data)
+         * - email: User's email
+         * - roles: Authority strings, e.g. ["ROLE_USER"]
+         */
+        if (statelessPrincipalEnabled) {
+            List<String> roles = userPrincipal.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList());
+            builder.claim(CLAIM_USER_ID, userPrincipal.getId())
+                    .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                    .claim(CLAIM_ROLES, roles);
+        }
+
+        return builder
+                .signWith(keyHolder.getSigningKey())
                 .compact();
     }
 
     /**
-     * GET SIGNING KEY
-     *
-     * Converts the secret string into a cryptographic key
+     * BUILD PRINCIPAL FROM VERIFIED CLAIMS
      *
-     * Process:
-     * 1. Decode base64 secret string to bytes
-     * 2. Create HMAC key from bytes
+     * Reconstructs UserDetailsImpl without touching the database
+     * Only call this with claims from a successful parseJwtToken()
      *
-     * Why use HMAC-SHA256?
-     * - Symmetric algorithm: Same key for signing and verification
-     * - Fast and efficient
-     * - Secure for most applications
+     * Returns null (caller should load the user from the database) when:
+     * - Stateless principal mode is disabled
+     * - The token was issued before the mode was enabled (no custom claims)
+     * - The token is older than the revalidation interval
      *
-     * Alternative algorithms:
-     * - RS256: Asymmetric (public/private key pair)
-     * - ES256: Elliptic Curve (smaller keys, faster)
+     * Password is null: it is never needed after authentication
      *
-     * @return SecretKey for signing/verifying tokens
+     * @param claims - Verified claims
+     * @return UserDetailsImpl built from claims, or null
      */
-    private SecretKey getSigningKey() {
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        if (!statelessPrincipalEnabled || claims == null) {
+            return null;
+        }
+
         /*
-         * Decoders.BASE64.decode(): Decodes base64 string to bytes
-         * - Our secret is stored as base64 string
-         * - Must convert to bytes for cryptographic operations
+         * REVALIDATION WINDOW
          *
-         * Keys.hmacShaKeyFor(): Creates HMAC key from bytes
-         * - Automatically chooses SHA-256, SHA-384, or SHA-512
-         * - Based on key length (256 bits = SHA-256)
+         * Tokens past the window are re-checked against the database
+         * so role changes and removed users are picked up
          */
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null
+                || System.currentTimeMillis() - issuedAt.getTime() > statelessPrincipalRevalidateMs) {
+            return null;
+        }
+
+        Object id = claims.get(CLAIM_USER_ID);
+        Object roles = claims.get(CLAIM_ROLES);
+        if (!(id instanceof Number) || !(roles instanceof Collection<?>)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : (Collection<?>) roles) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+
+        return new UserDetailsImpl(
+                ((Number) id).longValue(),
+                claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                null,
+                authorities);
     }
 
     /**
@@ -204,13 +315,10 @@ public class JwtUtils {
      */
     public String getUsernameFromJwtToken(String token) {
         /*
-         * Jwts.parser(): Creates a JWT parser
-         *
-         * .verifyWith(): Sets the key to verify signature
+         * keyHolder.getParser(): Shared, immutable JWT parser
+         * - Already configured with .verifyWith(signingKey)
          * - Ensures token was signed with our secret key
-         * - Detects if token was tampered with
-         *
-         * .build(): Builds the parser
+         * - Built once, reused by every request
          *
          * .parseSignedClaims(): Parses and validates token
          * - Verifies signature
@@ -221,9 +329,7 @@ public class JwtUtils {
          *
          * .getSubject(): Gets the subject claim (username)
          */
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return keyHolder.getParser()
                 .parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
@@ -233,6 +339,19 @@ public class JwtUtils {
      * VALIDATE JWT TOKEN
      *
      * Checks if a token is valid and can be trusted
+     * Convenience wrapper around parseJwtToken()
+     *
+     * @param authToken - The JWT token to validate
+     * @return true if valid, false if invalid
+     */
+    public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken).isValid();
+    }
+
+    /**
+     * PARSE JWT TOKEN
+     *
+     * Verifies a token and returns its claims from a SINGLE parse
      *
      * Validation checks:
      * 1. Signature is valid (token not tampered)
@@ -240,10 +359,16 @@ public class JwtUtils {
      * 3. Token format is correct
      * 4. Claims are valid
      *
-     * @param authToken - The JWT token to validate
-     * @return true if valid, false if invalid
+     * Why one parse?
+     * - Every parse verifies the HMAC signature
+     * - Validating and then extracting the username parsed twice
+     * - Callers on the request path (AuthTokenFilter) should use this
+     *   and read subject, expiry and custom claims from the result
+     *
+     * @param authToken - The JWT token to verify
+     * @return Valid result with claims, or invalid result with the failure reason
      */
-    public boolean validateJwtToken(String authToken) {
+    public JwtValidationResult parseJwtToken(String authToken) {
         try {
             /*
              * PARSE AND VALIDATE TOKEN
@@ -255,13 +380,12 @@ public class JwtUtils {
              *
              * If any validation fails, an exception is thrown
              */
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
+            Claims claims = keyHolder.getParser()
+                    .parseSignedClaims(authToken)
+                    .getPayload();
 
             // If we reach here, token is valid
-            return true;
+            return JwtValidationResult.valid(claims);
 
         } catch (MalformedJwtException e) {
             /*
@@ -275,6 +399,7 @@ public class JwtUtils {
              * Example: "abc.def" (missing signature part)
              */
             logger.error("Invalid JWT token: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.MALFORMED);
 
         } catch (ExpiredJwtException e) {
             /*
@@ -289,6 +414,7 @@ public class JwtUtils {
              * - Or use refresh token to get new access token
              */
             logger.error("JWT token is expired: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.EXPIRED);
 
         } catch (UnsupportedJwtException e) {
             /*
@@ -301,6 +427,7 @@ public class JwtUtils {
              * Example: Token signed with RS256 but we expect HS256
              */
             logger.error("JWT token is unsupported: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.UNSUPPORTED);
 
         } catch (IllegalArgumentException e) {
             /*
@@ -312,6 +439,7 @@ public class JwtUtils {
              * - Invalid characters
              */
             logger.error("JWT claims string is empty: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.EMPTY);
 
         } catch (io.jsonwebtoken.security.SecurityException e) {
             /*
@@ -326,9 +454,7 @@ public class JwtUtils {
              * Should be logged and investigated
              */
             logger.error("Invalid JWT signature: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.INVALID_SIGNATURE);
         }
-
-        // If any exception occurred, token is invalid
-        return false;
     }
 }
@@ -0,0 +1,79 @@
+package com.security.jwt.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * JWT VALIDATION RESULT
+ *
+ * Outcome of parsing a token ONCE with JwtUtils.parseJwtToken()
+ *
+ * Either:
+ * - valid: Signature and expiry verified, claims are available
+ * - invalid: Token rejected, failure tells us why
+ *
+ * Why not just return boolean?
+ * - validateJwtToken() + getUsernameFromJwtToken() parsed the token twice
+ * - Each parse verifies the HMAC signature again
+ * - With this result the caller gets the claims from the single parse
+ *
+ * Immutable: Safe to pass around and share
+ */
+public final class JwtValidationResult {
+
+    /**
+     * FAILURE REASONS
+     *
+     * One value per exception type JwtUtils used to log
+     */
+    public enum Failure {
+        MALFORMED,          // Not a well-formed JWT
+        EXPIRED,            // exp claim is in the past
+        UNSUPPORTED,        // Unsupported algorithm or format
+        EMPTY,              // Null or empty token string
+        INVALID_SIGNATURE   // Signature does not match our key
+    }
+
+    private final Claims claims;
+    private final Failure failure;
+
+    private JwtValidationResult(Claims claims, Failure failure) {
+        this.claims = claims;
+        this.failure = failure;
+    }
+
+    static JwtValidationResult valid(Claims claims) {
+        return new JwtValidationResult(claims, null);
+    }
+
+    static JwtValidationResult invalid(Failure failure) {
+        return new JwtValidationResult(null, failure);
+    }
+
+    /**
+     * @return true if the token was verified successfully
+     */
+    public boolean isValid() {
+        return failure == null;
+    }
+
+    /**
+     * @return Verified claims, or null if the token is invalid
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * @return Subject claim (username), or null if the token is invalid
+     */
+    public String getUsername() {
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * @return Why the token was rejected, or null if it is valid
+     */
+    public Failure getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,109 @@
+package com.security.jwt.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IN-MEMORY LOGIN RATE LIMIT STORE
+ *
+ * Token buckets kept in this JVM
+ *
+ * ============================================
+ * BUCKET STATE: ONE ATOMIC LONG
+ * ============================================
+ *
+ * Each bucket is a single "theoretical arrival time" (GCRA, the
+ * generic cell rate algorithm, equivalent to a token bucket):
+ * - Every allowed attempt pushes it one interval into the future
+ * - An attempt is allowed while it is at most (capacity - 1) intervals
+ *   ahead of now
+ * - Updated with compareAndSet: no locks, no timer refilling tokens
+ *
+ * Example: capacity 5, interval 12s
+ * - 5 attempts at once: allowed, arrival time is now + 60s
+ * - 6th attempt: 60s ahead > 48s allowed → wait 12s
+ *
+ * ============================================
+ * THE MAP: BOUNDED, IDLE ENTRIES EVICTED
+ * ============================================
+ *
+ * Caffeine cache (like UserDetailsCache):
+ * - maximumSize: An attacker spraying usernames or IPs can't grow it
+ *   without limit
+ * - Concurrent: Striped like ConcurrentHashMap, lookups don't lock
+ * - Each bucket expires once it would be full again (RateLimit.getRefillNanos),
+ *   so evicting it changes no decision
+ */
+public class InMemoryLoginRateLimitStore implements LoginRateLimitStore {
+
+    /*
+     * Times are nanoseconds since the store was created, so a new bucket
+     * (arrival time 0) is always full
+     */
+    private final long epoch = System.nanoTime();
+
+    private final Cache<String, Bucket> buckets;
+
+    /**
+     * @param maximumKeys - Most buckets kept at once
+     */
+    public InMemoryLoginRateLimitStore(long maximumKeys) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfter(new Expiry<String, Bucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+                        return bucket.refillNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Bucket bucket, long currentTime,
+                                                  long currentDuration) {
+                        return bucket.refillNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Bucket bucket, long currentTime,
+                                                long currentDuration) {
+                        return bucket.refillNanos;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimit limit) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(limit.getRefillNanos()));
+        long interval = limit.getIntervalNanos();
+        long tolerance = (limit.getCapacity() - 1) * interval;
+        long now = System.nanoTime() - epoch;
+
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            if (start - now > tolerance) {
+                return start - now - tolerance; // Empty bucket: time until one token
+            }
+            if (bucket.compareAndSet(arrival, start + interval)) {
+                return 0;
+            }
+            // Another attempt on the same key won the race: retry
+        }
+    }
+
+    /**
+     * ONE BUCKET
+     *
+     * value: Theoretical arrival time of the next attempt
+     */
+    private static final class Bucket extends AtomicLong {
+        final long refillNanos;
+
+        Bucket(long refillNanos) {
+            this.refillNanos = refillNanos;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.security.jwt.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LOGIN RATE LIMIT FILTER
+ *
+ * Throttles POST /api/auth/signin BEFORE the password is checked
+ *
+ * Why?
+ * - Every login attempt costs one BCrypt verification (~100 ms of CPU)
+ * - A credential-stuffing burst would keep every core busy hashing
+ * - Throttled attempts here cost a map lookup, no hashing at all
+ *
+ * Two token buckets per attempt (see RateLimit):
+ * - Per client IP: Limits one machine trying many usernames
+ * - Per username: Limits many machines guessing one account's password
+ *
+ * Throttled attempt:
+ * - 429 Too Many Requests
+ * - Retry-After: Seconds until the next attempt is allowed
+ * - Counted in security.login.throttled{limit=ip|username}
+ *
+ * Reading the username:
+ * - The JSON body is read here (at most MAX_BODY_BYTES) and then
+ *   replayed to AuthController, which reads it again as usual
+ *
+ * Client IP:
+ * - request.getRemoteAddr(); behind a proxy set
+ *   server.forward-headers-strategy so it is the real client
+ *
+ * Buckets live in a LoginRateLimitStore (in memory by default)
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimitFilter.class);
+
+    private static final String SIGNIN_PATH = "/api/auth/signin";
+
+    /*
+     * Bytes of the body read to find the username (a login body is tiny)
+     */
+    private static final int MAX_BODY_BYTES = 4096;
+
+    @Autowired
+    private LoginRateLimitStore store;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+     * CONFIGURATION
+     *
+     * security.login-rate-limit.enabled: Turn throttling on/off
+     * security.login-rate-limit.ip.*: Bucket per client IP
+     * security.login-rate-limit.username.*: Bucket per username
+     */
+    @Value("${security.login-rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.login-rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.login-rate-limit.ip.per-minute:30}")
+    private int ipPerMinute;
+
+    @Value("${security.login-rate-limit.username.capacity:5}")
+    private int usernameCapacity;
+
+    @Value("${security.login-rate-limit.username.per-minute:5}")
+    private int usernamePerMinute;
+
+    private RateLimit ipLimit;
+    private RateLimit usernameLimit;
+
+    @PostConstruct
+    void init() {
+        ipLimit = new RateLimit("ip", ipCapacity, ipPerMinute);
+        usernameLimit = new RateLimit("username", usernameCapacity, usernamePerMinute);
+    }
+
+    /**
+     * Only login attempts are throttled
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !SIGNIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        /*
+         * STEP 1: PER-IP BUCKET
+         *
+         * Checked first: no need to read the body of a throttled client
+         */
+        long waitNanos = store.tryAcquire(ipLimit.getName() + ":" + request.getRemoteAddr(), ipLimit);
+        if (waitNanos > 0) {
+            throttled(request, response, ipLimit, waitNanos);
+            return;
+        }
+
+        /*
+         * STEP 2: PER-USERNAME BUCKET
+         *
+         * A body without a username goes on, AuthController answers 400
+         */
+        ReplayableRequest replayable = new ReplayableRequest(request);
+        String username = username(replayable.body);
+        if (username != null) {
+            waitNanos = store.tryAcquire(usernameLimit.getName() + ":" + username, usernameLimit);
+            if (waitNanos > 0) {
+                throttled(request, response, usernameLimit, waitNanos);
+                return;
+            }
+        }
+
+        /*
+         * STEP 3: CONTINUE TO AuthController (body replayed)
+         */
+        filterChain.doFilter(replayable, response);
+    }
+
+    /**
+     * USERNAME FROM THE LOGIN BODY
+     *
+     * @return username, or null if the body isn't a JSON object with one
+     */
+    private String username(byte[] body) {
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            if (root == null) {
+                return null; // Empty body
+            }
+            JsonNode username = root.path("username");
+            return username.isTextual() && !username.asText().isBlank() ? username.asText() : null;
+        } catch (IOException e) {
+            return null; // Malformed or cut at MAX_BODY_BYTES
+        }
+    }
+
+    /**
+     * 429 TOO MANY REQUESTS
+     */
+    private void throttled(HttpServletRequest request, HttpServletResponse response,
+                           RateLimit limit, long waitNanos) throws IOException {
+        meterRegistry.counter("security.login.throttled", "limit", limit.getName()).increment();
+        logger.debug("Login throttled by {} limit from {}", limit.getName(), request.getRemoteAddr());
+
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Too many login attempts, try again in " + retryAfter + " seconds");
+        body.put("path", request.getServletPath());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * REQUEST WHOSE BODY CAN BE READ TWICE
+     *
+     * Keeps the first MAX_BODY_BYTES; the controller reads those again,
+     * followed by whatever was not read yet
+     */
+    private static class ReplayableRequest extends HttpServletRequestWrapper {
+        final byte[] body;
+        private final InputStream replay;
+        private boolean finished;
+
+        ReplayableRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            InputStream original = request.getInputStream();
+            this.body = original.readNBytes(MAX_BODY_BYTES);
+            this.replay = new SequenceInputStream(new ByteArrayInputStream(body), original);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    int b = replay.read();
+                    finished = b == -1;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = replay.read(b, off, len);
+                    finished = n == -1;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /*
+                 * Non-blocking readers: the body is always "ready" here
+                 * (buffered, then the rest of the original stream), so
+                 * the listener is told right away and reads it all
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        if (finished) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(replay,
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
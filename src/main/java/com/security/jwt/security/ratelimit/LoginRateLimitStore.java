@@ -0,0 +1,25 @@
+package com.security.jwt.security.ratelimit;
+
+/**
+ * LOGIN RATE LIMIT STORE
+ *
+ * Holds the token buckets used by LoginRateLimitFilter
+ *
+ * Implementations:
+ * - InMemoryLoginRateLimitStore: Buckets in this JVM (default)
+ * - A shared store (e.g. Redis) can be plugged in by setting
+ *   security.login-rate-limit.store to another value than "memory" and
+ *   declaring a LoginRateLimitStore bean, so all nodes count the same attempts
+ */
+public interface LoginRateLimitStore {
+
+    /**
+     * TAKE ONE TOKEN
+     *
+     * @param key - Bucket key, e.g. "ip:203.0.113.7" or "username:john"
+     * @param limit - Capacity and refill rate of the bucket
+     * @return 0 if a token was taken (request allowed),
+     *         otherwise nanoseconds until the next token is available
+     */
+    long tryAcquire(String key, RateLimit limit);
+}
@@ -0,0 +1,62 @@
+package com.security.jwt.security.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RATE LIMIT
+ *
+ * One token bucket configuration
+ *
+ * - capacity: Attempts allowed in a burst (bucket size)
+ * - perMinute: Tokens added back per minute (refill rate)
+ *
+ * Example: capacity 5, perMinute 5
+ * - 5 quick attempts are allowed
+ * - Then one more every 12 seconds
+ */
+public final class RateLimit {
+
+    private final String name;
+    private final int capacity;
+    private final long intervalNanos;
+
+    /**
+     * @param name - Used in keys and metrics (e.g. "ip", "username")
+     * @param capacity - Burst size, at least 1
+     * @param perMinute - Refill rate, at least 1
+     */
+    public RateLimit(String name, int capacity, int perMinute) {
+        if (capacity < 1 || perMinute < 1) {
+            throw new IllegalArgumentException(
+                    "Rate limit " + name + ": capacity and per-minute must be at least 1");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Time to earn one token back
+     */
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * Time for an empty bucket to fill up again
+     *
+     * An idle bucket is full after this long, the same as a new one,
+     * so it can be forgotten without changing any decision
+     */
+    public long getRefillNanos() {
+        return capacity * intervalNanos;
+    }
+}
@@ -0,0 +1,102 @@
+package com.security.jwt.security.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCRYPT STRENGTH (cost factor)
+ *
+ * Picks the BCrypt strength used for new password hashes
+ *
+ * Strength = log2(rounds): every +1 doubles the time of one hash
+ * - Higher: Harder to brute-force a stolen hash
+ * - Lower: More logins per second per CPU core
+ *
+ * Two ways to choose it (see application.properties):
+ * 1. Fixed: security.password-hashing.strength
+ * 2. Calibrated: security.password-hashing.calibrate=true
+ *    - Times a few hashes on THIS machine at startup
+ *    - Uses the highest strength whose hash still takes at most
+ *      security.password-hashing.target-ms
+ *    - Never goes below the fixed strength (it acts as a minimum)
+ *
+ * Existing hashes with a lower strength are upgraded on the next
+ * successful login (see UserDetailsServiceImpl.updatePassword)
+ */
+public final class BCryptStrength {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptStrength.class);
+
+    // Limits accepted by BCryptPasswordEncoder
+    public static final int MIN = 4;
+    public static final int MAX = 31;
+
+    // Calibration never goes above this (one hash would take minutes)
+    private static final int MAX_CALIBRATED = 16;
+
+    private static final String SAMPLE_PASSWORD = "Calibration#Sample1";
+
+    private BCryptStrength() {
+    }
+
+    /**
+     * RESOLVE STRENGTH
+     *
+     * @param strength - Configured (minimum) strength
+     * @param calibrate - Measure hash time on this machine
+     * @param targetMs - Longest acceptable time for one hash when calibrating
+     * @return Strength to use for new hashes
+     */
+    public static int resolve(int strength, boolean calibrate, long targetMs) {
+        if (strength < MIN || strength > MAX) {
+            throw new IllegalArgumentException(
+                    "security.password-hashing.strength must be between " + MIN + " and " + MAX);
+        }
+        if (!calibrate) {
+            return strength;
+        }
+
+        int calibrated = calibrate(strength, targetMs);
+        logger.info("BCrypt strength calibrated to {} (target {} ms per hash, minimum {})",
+                calibrated, targetMs, strength);
+        return calibrated;
+    }
+
+    /**
+     * CALIBRATE
+     *
+     * Starts at the minimum and goes up while one hash stays within
+     * targetMs; each step doubles the time, so this stops quickly
+     */
+    private static int calibrate(int minimum, long targetMs) {
+        new BCryptPasswordEncoder(MIN).encode(SAMPLE_PASSWORD); // Warm up the JIT
+
+        int strength = minimum;
+        while (strength < MAX_CALIBRATED && timeMs(strength + 1, targetMs) <= targetMs) {
+            strength++;
+        }
+        return strength;
+    }
+
+    /**
+     * TIME ONE HASH
+     *
+     * Best of two runs, to skip one-off pauses (GC, JIT); the second run
+     * is skipped when the first is clearly over the target
+     */
+    private static long timeMs(int strength, long targetMs) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long first = hashMs(encoder);
+        if (first > 2 * targetMs) {
+            return first;
+        }
+        return Math.min(first, hashMs(encoder));
+    }
+
+    private static long hashMs(BCryptPasswordEncoder encoder) {
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
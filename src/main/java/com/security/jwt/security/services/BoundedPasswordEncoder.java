@@ -0,0 +1,147 @@
+package com.security.jwt.security.services;
+
+import com.security.jwt.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BOUNDED PASSWORD ENCODER (bulkhead)
+ *
+ * Runs BCrypt encode/matches on a small dedicated thread pool instead of
+ * directly on the request thread
+ *
+ * Why?
+ * - One BCrypt hash costs ~100ms of pure CPU
+ * - A login storm on Tomcat workers would use every CPU core and
+ *   starve the todo endpoints
+ * - Here at most `threads` hashes run at once, whatever the load
+ *
+ * Overload:
+ * - Up to queueCapacity operations wait for a hashing thread
+ * - Beyond that, PasswordHashingRejectedException is thrown at once
+ *   (503 Service Unavailable, see GlobalExceptionHandler)
+ *
+ * Metrics (Micrometer, see /actuator/metrics):
+ * - password.hashing{operation=encode|matches}: Time spent hashing
+ * - password.hashing.queue: Operations waiting for a thread
+ * - password.hashing.active: Operations being hashed
+ * - password.hashing.rejected: Operations refused because the queue was full
+ *
+ * Created by WebSecurityConfig.passwordEncoder()
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    /**
+     * @param delegate - Encoder doing the actual work (BCryptPasswordEncoder)
+     * @param threads - Hashes running at the same time
+     * @param queueCapacity - Hashes allowed to wait for a thread
+     * @param meterRegistry - Where metrics are registered
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hashing")
+                .tag("operation", "encode")
+                .description("Time spent hashing passwords")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing")
+                .tag("operation", "matches")
+                .description("Time spent hashing passwords")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing requests being processed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * UPGRADE ENCODING
+     *
+     * Only reads the hash prefix (no hashing), so not sent to the pool
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * SHUTDOWN
+     *
+     * Called by Spring when the context closes (inferred destroy method)
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * RUN ON THE HASHING POOL AND WAIT FOR THE RESULT
+     */
+    private <T> T run(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(timer.wrap(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many password hashing requests, try again later");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
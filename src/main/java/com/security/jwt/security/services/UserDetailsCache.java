@@ -0,0 +1,138 @@
+package com.security.jwt.security.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * USER DETAILS CACHE
+ *
+ * Bounded, time-limited cache of principals loaded by UserDetailsServiceImpl
+ *
+ * Why cache?
+ * - AuthTokenFilter loads the user on EVERY authenticated request
+ * - The same active users are reloaded from the database over and over
+ * - Caching them for a short time removes most of those queries
+ *
+ * When to use it instead of stateless principals (jwt.stateless-principal)?
+ * - When roles carried inside tokens must not be trusted
+ * - Roles still come from the database, at most ttl-ms old
+ *
+ * Caffeine:
+ * - maximumSize: Bounded, W-TinyLFU eviction keeps the most useful entries
+ * - expireAfterWrite: Entry is reloaded after ttl-ms
+ * - recordStats: Hit, miss and eviction counts
+ *
+ * Metrics (Micrometer, see /actuator/metrics):
+ * - cache.gets{cache=userDetails,result=hit|miss}
+ * - cache.evictions{cache=userDetails}
+ * - cache.size{cache=userDetails}
+ *
+ * Invalidation:
+ * - Call invalidate(username) whenever a user's roles or password change
+ *   (AuthController.registerUser does this for new users)
+ *
+ * Only used on the JWT request path. Login (DaoAuthenticationProvider)
+ * always verifies the password against the database.
+ */
+@Component
+public class UserDetailsCache {
+
+    /*
+     * CONFIGURATION
+     *
+     * security.user-cache.enabled: Turn caching on/off
+     * security.user-cache.maximum-size: Max number of cached users
+     * security.user-cache.ttl-ms: How long an entry stays valid
+     */
+    @Value("${security.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${security.user-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+     * The cache itself, null when caching is disabled
+     */
+    private Cache<String, UserDetails> cache;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    /**
+     * GET USER DETAILS
+     *
+     * Returns the cached principal, or loads and caches it
+     *
+     * The loader runs outside of any cache lock:
+     * - A database query never blocks other lookups
+     * - Two concurrent misses for the same user may both load (harmless)
+     *
+     * Exceptions from the loader (e.g. UsernameNotFoundException)
+     * propagate and nothing is cached
+     *
+     * @param username - The username to look up
+     * @param loader - Loads the user on a miss (usually loadUserByUsername)
+     * @return UserDetails for the user
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (cache == null) {
+            return loader.apply(username);
+        }
+        UserDetails userDetails = cache.getIfPresent(username);
+        if (userDetails == null) {
+            userDetails = loader.apply(username);
+            cache.put(username, userDetails);
+        }
+        return userDetails;
+    }
+
+    /**
+     * INVALIDATE ONE USER
+     *
+     * Call after a user's roles or password change
+     *
+     * @param username - The user to remove from the cache
+     */
+    public void invalidate(String username) {
+        if (cache != null && username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    /**
+     * INVALIDATE ALL USERS
+     *
+     * Call after bulk role changes
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
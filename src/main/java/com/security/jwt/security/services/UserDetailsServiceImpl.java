@@ -4,6 +4,7 @@ import com.security.jwt.models.User;
 import com.security.jwt.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -34,7 +35,7 @@ import org.springframework.transaction.annotation.Transactional;
  * - Can be injected into other components
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     /*
      * USER REPOSITORY
@@ -59,6 +60,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserExistenceFilter userExistenceFilter; // Skips queries for unknown usernames
+
     /**
      * LOAD USER BY USERNAME
      *
@@ -69,15 +76,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * 2. JWT validation: When loading user from token
      * 3. Session restoration: When loading user from session
      *
-     * @Transactional:
+     * @Transactional(readOnly = true):
      * - Ensures database operations are in a transaction
-     * - If exception occurs, transaction rolls back
-     * - Required for lazy loading of relationships (roles)
+     * - readOnly: Hibernate skips dirty checking, nothing is written
      *
      * Why @Transactional?
      * - User entity has lazy-loaded roles (FetchType.LAZY)
-     * - Without transaction, accessing roles throws LazyInitializationException
-     * - Transaction keeps database connection open until method completes
+     * - We fetch them in the same query (findWithRolesByUsername)
+     * - The transaction still guards any other lazy access in build()
      *
      * Process:
      * 1. Query database for user by username
@@ -91,13 +97,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException if user not found
      */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         /*
          * QUERY DATABASE FOR USER
          *
-         * userRepository.findByUsername(username):
-         * - Executes: SELECT * FROM users WHERE username = ?
+         * userRepository.findWithRolesByUsername(username):
+         * - Executes ONE query that loads the user and its roles:
+         *   SELECT ... FROM users u LEFT JOIN user_roles ur ... LEFT JOIN roles r ...
+         *   WHERE u.username = ?
+         * - Roles are already initialized, no second SELECT in build()
          * - Returns Optional<User>
          *
          * .orElseThrow():
@@ -114,7 +123,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
          *     throw new UsernameNotFoundException("User Not Found with username: " + username);
          * }
          */
-        User user = userRepository.findByUsername(username)
+        /*
+         * UNKNOWN USERNAME? (no join query)
+         *
+         * UserExistenceFilter knows the usernames; when one isn't in it,
+         * the user + roles SELECT is skipped (e.g. credential stuffing
+         * with made-up usernames). With several nodes, verify-misses=true
+         * confirms the miss with a cheap existence check instead
+         */
+        if (!userExistenceFilter.mightExist(username)) {
+            throw new UsernameNotFoundException("User Not Found with username: " + username);
+        }
+
+        User user = userRepository.findWithRolesByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
         /*
@@ -140,6 +161,34 @@ public class UserDetailsServiceImpl implements UserDetailsService {
          */
         return UserDetailsImpl.build(user);
     }
+
+    /**
+     * UPDATE PASSWORD (rehash on login)
+     *
+     * From UserDetailsPasswordService, called by DaoAuthenticationProvider
+     * right after a successful login when
+     * passwordEncoder.upgradeEncoding(storedHash) is true
+     * - e.g. the stored hash has a lower BCrypt strength than the
+     *   current one (see BCryptStrength)
+     * - newPassword is the login password hashed with the current strength
+     *
+     * The user never notices: their password is unchanged, only its hash
+     *
+     * @param user - The user who just logged in
+     * @param newPassword - New hash to store
+     * @return Same user with the new hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+
+        // Cached copies still hold the old hash
+        userDetailsCache.invalidate(user.getUsername());
+
+        UserDetailsImpl details = (UserDetailsImpl) user;
+        return new UserDetailsImpl(details.getId(), details.getUsername(), details.getEmail(),
+                newPassword, details.getAuthorities());
+    }
 }
 
 /*
@@ -166,7 +215,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
  * - Provider calls UserDetailsService.loadUserByUsername("john")
  *
  * STEP 4: This class (UserDetailsServiceImpl)
- * - Queries database: SELECT * FROM users WHERE username = 'john'
+ * - Queries database (user + roles in one query): ... WHERE username = 'john'
  * - Finds user with hashed password: "$2a$10$abc...xyz"
  * - Converts to UserDetailsImpl
  * - Returns UserDetailsImpl to Provider
@@ -0,0 +1,264 @@
+package com.security.jwt.security.services;
+
+import com.security.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * USER EXISTENCE FILTER
+ *
+ * In-memory Bloom filter of every username, so signins with usernames
+ * that don't exist skip the database
+ *
+ * Answers:
+ * - "Not in the filter": No query at all (or a cheap existence check
+ *   with verify-misses=true, see below)
+ * - "Maybe exists": Loaded with SQL as before (about 1% are false positives)
+ *
+ * Signup doesn't need it: the users table's unique constraints reject
+ * duplicates on INSERT (see AuthController.registerUser)
+ *
+ * Bloom filter:
+ * - A bit array plus k hash functions
+ * - Adding a value sets k bits, checking it reads the same k bits
+ * - Any bit clear → the value was never added
+ * - About 1.2 bytes per value at 1% false positives
+ *   (1 million users → 1.2 MB)
+ *
+ * Lifecycle:
+ * 1. Startup: Every username is streamed from the database
+ * 2. Signup: The new username is added (AuthController)
+ * 3. Until step 1 finishes, every lookup says "maybe" (uses SQL)
+ *
+ * Limit: only users created by THIS instance after startup are added
+ * - Users created by another node, a script or directly in SQL are
+ *   missing until the next restart
+ * - So the default (verify-misses=false) is for a SINGLE node that
+ *   creates every user through signup
+ * - Several nodes, or users created outside signup: set
+ *   security.user-filter.verify-misses=true; existsByUsername then
+ *   confirms each miss (an index lookup instead of loading the user and
+ *   its roles), and a user found that way is added to the filter
+ *
+ * Bits are only ever set, never cleared:
+ * - A deleted or renamed user stays a "maybe" (one extra query)
+ * - Setting bits is lock-free (AtomicLongArray), lookups just read
+ *
+ * Sizing:
+ * - For max(expected-users, 2 x users at startup) users
+ * - Past that the false positive rate rises (more queries); restart
+ *   to resize
+ *
+ * Metrics (Micrometer, see /actuator/metrics):
+ * - user.existence.lookups{result=absent}: Not in the filter, no query
+ * - user.existence.lookups{result=maybe}: In the filter, loaded with SQL
+ * - user.existence.lookups{result=verified}: Not in the filter, confirmed
+ *   absent with existsByUsername (verify-misses=true)
+ * - user.existence.lookups{result=missing}: Not in the filter but in the
+ *   database (created elsewhere); should stay near 0
+ *
+ * @Component: Spring-managed singleton
+ */
+@Component
+public class UserExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    /*
+     * Seed of the second hash
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /*
+     * CONFIGURATION
+     *
+     * security.user-filter.enabled: Turn the filter on/off
+     * security.user-filter.expected-users: Users the filter is sized for
+     * security.user-filter.false-positive-rate: Share of "maybe" answers
+     *   for values that don't exist
+     * security.user-filter.verify-misses: Confirm "not in the filter"
+     *   with SQL before failing a login (needed with several nodes)
+     */
+    @Value("${security.user-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.user-filter.expected-users:100000}")
+    private long expectedUsers;
+
+    @Value("${security.user-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${security.user-filter.verify-misses:false}")
+    private boolean verifyMisses;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Streamed query needs a transaction
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter absent;
+    private Counter maybe;
+    private Counter verified;
+    private Counter missing;
+
+    private volatile AtomicLongArray words; // null until sized
+    private long bits;
+    private int hashes;
+
+    // Set once every existing user has been added
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        absent = meterRegistry.counter("user.existence.lookups", "result", "absent");
+        maybe = meterRegistry.counter("user.existence.lookups", "result", "maybe");
+        verified = meterRegistry.counter("user.existence.lookups", "result", "verified");
+        missing = meterRegistry.counter("user.existence.lookups", "result", "missing");
+    }
+
+    /**
+     * LOAD EXISTING USERS
+     *
+     * Runs once the application has started (database ready); signups
+     * during the load are added by AuthController as usual
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long users = Math.max(expectedUsers, 2 * userRepository.count());
+        bits = Math.max(64, (long) Math.ceil(-users * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2))));
+        hashes = Math.max(1, (int) Math.round((double) bits / users * Math.log(2)));
+        words = new AtomicLongArray((int) ((bits + 63) / 64));
+
+        long loaded = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                for (Iterator<String> it = usernames.iterator(); it.hasNext(); ) {
+                    add(it.next());
+                    count++;
+                }
+            }
+            return count;
+        });
+        ready = true;
+
+        logger.info("User existence filter loaded: {} users, {} bits, {} hashes", loaded, bits, hashes);
+    }
+
+    /**
+     * ADD A USERNAME
+     *
+     * Called after a user is saved (no-op before the filter is sized)
+     */
+    public void add(String username) {
+        AtomicLongArray words = this.words;
+        if (words == null || username == null) {
+            return; // load() adds it from the database
+        }
+        long h1 = hash(username);
+        long h2 = mix(h1 ^ SEED) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            long mask = 1L << bit; // Shift uses the low 6 bits
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    /**
+     * MIGHT THIS USERNAME EXIST? (used before loading a user)
+     *
+     * mightContain(), with a miss confirmed by SQL when verify-misses is
+     * on, so users created outside this instance can still log in
+     *
+     * Counted here, where it is known whether a query was skipped
+     *
+     * @return false: it doesn't exist; true: load it from the database
+     */
+    public boolean mightExist(String username) {
+        if (!ready || username == null) {
+            return true; // Not loaded (or disabled): not counted
+        }
+        if (mightContain(username)) {
+            maybe.increment();
+            return true;
+        }
+        if (!verifyMisses) {
+            absent.increment(); // The only case without any query
+            return false;
+        }
+        if (!userRepository.existsByUsername(username)) {
+            verified.increment();
+            return false;
+        }
+        missing.increment();
+        logger.debug("User {} was missing from the existence filter", username);
+        add(username); // Next lookup hits the filter
+        return true;
+    }
+
+    /**
+     * IS THIS USERNAME IN THE FILTER?
+     *
+     * @return false: it was never added; true: check the database
+     */
+    public boolean mightContain(String username) {
+        if (!ready || username == null) {
+            return true; // Not loaded (or disabled): ask the database
+        }
+        AtomicLongArray words = this.words;
+        long h1 = hash(username);
+        long h2 = mix(h1 ^ SEED) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-BIT STRING HASH
+     *
+     * Cheap, not cryptographic: FNV-1a over the chars, then mixed
+     */
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Finalizer of MurmurHash3: spreads every input bit over the output
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
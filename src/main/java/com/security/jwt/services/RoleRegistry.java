@@ -0,0 +1,76 @@
+package com.security.jwt.services;
+
+import com.security.jwt.models.ERole;
+import com.security.jwt.models.Role;
+import com.security.jwt.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ROLE REGISTRY
+ *
+ * In-memory ERole -> Role lookup, loaded from the roles table
+ *
+ * Why?
+ * - There are only three roles and they never change while running
+ * - Signup used to run one SELECT per requested role
+ * - Now it's a map lookup
+ *
+ * How it's kept current:
+ * - SpringBootJwtSecurityApplication.initDatabase calls refresh()
+ *   once the roles are seeded
+ * - refresh() can be called again whenever the roles table changes
+ * - A role missing from the map triggers one refresh (e.g. roles
+ *   inserted after startup)
+ *
+ * Thread safety:
+ * - Each refresh builds a new unmodifiable map and swaps the volatile
+ *   reference; readers never see a half-built map
+ *
+ * Returned Role objects are detached entities: fine as references
+ * (e.g. user.setRoles(...)), don't modify them
+ *
+ * @Service: Spring-managed singleton
+ */
+@Service
+public class RoleRegistry {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private volatile Map<ERole, Role> roles = Collections.emptyMap();
+
+    /**
+     * RELOAD ALL ROLES
+     *
+     * One SELECT of the whole roles table
+     */
+    public void refresh() {
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role));
+        roles = Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * GET ROLE
+     *
+     * @param name - Role name
+     * @return The Role entity
+     * @throws RuntimeException if the role doesn't exist in the database
+     */
+    public Role get(ERole name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            refresh();
+            role = roles.get(name);
+        }
+        if (role == null) {
+            throw new RuntimeException("Error: Role is not found.");
+        }
+        return role;
+    }
+}
@@ -0,0 +1,199 @@
+package com.security.jwt.services;
+
+import com.security.jwt.models.Todo;
+import com.security.jwt.models.User;
+import com.security.jwt.payload.request.TodoBatchRequest;
+import com.security.jwt.payload.response.TodoBatchResponse;
+import com.security.jwt.repository.TodoRepository;
+import com.security.jwt.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * TODO BATCH SERVICE
+ *
+ * Applies a TodoBatchRequest (create, update, toggle, delete) for one user
+ * in a SINGLE transaction
+ *
+ * How the work is kept to a few SQL round trips:
+ * 1. ONE query loads every todo referenced by update/toggle/delete
+ * 2. Changes are applied to those managed entities in memory
+ * 3. New todos are persisted with saveAll()
+ * 4. At commit Hibernate flushes INSERTs, UPDATEs and DELETEs in JDBC
+ *    batches (hibernate.jdbc.batch_size, pooled sequence IDs)
+ *
+ * Per-item results:
+ * - Invalid items (400) and unknown/foreign ids (404) are reported
+ *   individually, the rest of the batch is still applied
+ * - Operations are applied in order: create, update, toggle, delete
+ *
+ * @Service: Spring-managed bean holding business logic
+ */
+@Service
+public class TodoBatchService {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Validator validator; // Bean Validation (same rules as @Valid)
+
+    /**
+     * APPLY BATCH
+     *
+     * @Transactional: All operations commit together at the end
+     * - If the database rejects the flush, nothing is applied
+     *
+     * @param userId - Owner of the todos (current user)
+     * @param request - Operations to apply
+     * @return Per-item results
+     */
+    @Transactional
+    public TodoBatchResponse apply(Long userId, TodoBatchRequest request) {
+        TodoBatchResponse response = new TodoBatchResponse();
+
+        /*
+         * STEP 1: LOAD ALL REFERENCED TODOS IN ONE QUERY
+         *
+         * findByUserIdAndIdIn also enforces ownership:
+         * ids of other users' todos are simply not returned (404)
+         */
+        Set<Long> ids = new HashSet<>();
+        request.getUpdate().forEach(item -> {
+            if (item != null) {
+                ids.add(item.getId());
+            }
+        });
+        ids.addAll(request.getToggle());
+        ids.addAll(request.getDelete());
+        ids.remove(null);
+
+        Map<Long, Todo> todos = new HashMap<>();
+        if (!ids.isEmpty()) {
+            todoRepository.findByUserIdAndIdIn(userId, ids)
+                    .forEach(todo -> todos.put(todo.getId(), todo));
+        }
+
+        /*
+         * STEP 2: CREATE
+         *
+         * getReferenceById: owner proxy, no SELECT on users
+         */
+        User owner = userRepository.getReferenceById(userId);
+        List<Todo> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        List<TodoBatchRequest.TodoItem> creates = request.getCreate();
+        for (int i = 0; i < creates.size(); i++) {
+            TodoBatchRequest.TodoItem item = creates.get(i);
+            String error = validate(item);
+            if (error != null) {
+                response.failure("create", i, null, HttpStatus.BAD_REQUEST.value(), error);
+                continue;
+            }
+            created.add(new Todo(item.getTitle(), item.getDescription(), owner));
+            createdIndexes.add(i);
+        }
+        todoRepository.saveAll(created);
+        for (int i = 0; i < created.size(); i++) {
+            response.success("create", createdIndexes.get(i), created.get(i).getId(),
+                    HttpStatus.CREATED.value());
+        }
+
+        /*
+         * STEP 3: UPDATE
+         *
+         * Managed entities: changes are flushed at commit, no save() needed
+         * completed is optional here, null keeps the current value
+         */
+        List<TodoBatchRequest.TodoUpdate> updates = request.getUpdate();
+        for (int i = 0; i < updates.size(); i++) {
+            TodoBatchRequest.TodoUpdate item = updates.get(i);
+            String error = validate(item);
+            if (error != null) {
+                Long id = item != null ? item.getId() : null;
+                response.failure("update", i, id, HttpStatus.BAD_REQUEST.value(), error);
+                continue;
+            }
+            Todo todo = todos.get(item.getId());
+            if (todo == null) {
+                response.failure("update", i, item.getId(), HttpStatus.NOT_FOUND.value(), "Todo not found");
+                continue;
+            }
+            todo.setTitle(item.getTitle());
+            todo.setDescription(item.getDescription());
+            if (item.getCompleted() != null) {
+                todo.setCompleted(item.getCompleted());
+            }
+            response.success("update", i, todo.getId(), HttpStatus.OK.value());
+        }
+
+        /*
+         * STEP 4: TOGGLE
+         */
+        List<Long> toggles = request.getToggle();
+        for (int i = 0; i < toggles.size(); i++) {
+            Todo todo = todos.get(toggles.get(i));
+            if (todo == null) {
+                response.failure("toggle", i, toggles.get(i), HttpStatus.NOT_FOUND.value(), "Todo not found");
+                continue;
+            }
+            todo.setCompleted(!todo.getCompleted());
+            response.success("toggle", i, todo.getId(), HttpStatus.OK.value());
+        }
+
+        /*
+         * STEP 5: DELETE
+         *
+         * Removed from the map so a repeated id reports 404
+         * deleteAll(): em.remove() per entity, flushed as batched DELETEs
+         */
+        List<Todo> deleted = new ArrayList<>();
+        List<Long> deletes = request.getDelete();
+        for (int i = 0; i < deletes.size(); i++) {
+            Todo todo = todos.remove(deletes.get(i));
+            if (todo == null) {
+                response.failure("delete", i, deletes.get(i), HttpStatus.NOT_FOUND.value(), "Todo not found");
+                continue;
+            }
+            deleted.add(todo);
+            response.success("delete", i, todo.getId(), HttpStatus.OK.value());
+        }
+        todoRepository.deleteAll(deleted);
+
+        return response;
+    }
+
+    /**
+     * VALIDATE ONE ITEM
+     *
+     * @return Violation messages joined with "; ", or null if valid
+     */
+    private String validate(Object item) {
+        if (item == null) {
+            return "Item is required";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,440 @@
+package com.security.jwt.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.security.jwt.models.Todo;
+import com.security.jwt.payload.response.TodoEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * TODO EVENT PUBLISHER
+ *
+ * Sends todo changes to each user's open GET /api/todos/events streams
+ * (Server-Sent Events), so the frontend doesn't have to poll
+ *
+ * Per user (a "channel"):
+ * - Subscribers: One per open stream
+ * - Recent events: Ring buffer of the last replaySize events, replayed
+ *   to a client that reconnects with Last-Event-ID
+ *
+ * A channel is created by the user's first subscribe() and outlives
+ * its streams for a short while:
+ * - Events are still recorded after the last stream closed, so a client
+ *   that reconnects (network blip, stream timeout, page reload) gets
+ *   the events it missed instead of "refresh"
+ * - A channel without subscribers expires historyTtlMs after its last
+ *   change
+ * - Users who never subscribed (or not recently) have no channel, and
+ *   their changes are not recorded at all
+ *
+ * Memory bound (Caffeine, weighted by events):
+ * - All channels together hold at most maxRetainedEvents events
+ * - Over the cap, whole channels are evicted (rarely used ones first);
+ *   an evicted channel's open streams are closed, their clients
+ *   reconnect and get "refresh"
+ *
+ * Per subscriber:
+ * - Bounded queue (queueCapacity events)
+ * - publish() only offer()s to the queue, it never waits for a client
+ * - A full queue means the client is too slow: its stream is closed
+ *   (it reconnects and catches up from the ring buffer, or gets "refresh")
+ *
+ * Writing never blocks a thread:
+ * - Streams use servlet non-blocking I/O (WriteListener): events are
+ *   written only while the connection can take them (isReady())
+ * - A client that stops reading just stops being ready; the container
+ *   calls onWritePossible() once it can take more
+ * - So publishing threads write what fits and move on, no thread waits
+ *   on a slow socket, and open streams hold no thread
+ *
+ * Event ids come from one global counter, so ids only grow, even when a
+ * channel expires and is created again
+ *
+ * @Service: Spring-managed singleton
+ */
+@Service
+public class TodoEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoEventPublisher.class);
+
+    @Value("${todos.events.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${todos.events.replay-size:64}")
+    private int replaySize;
+
+    @Value("${todos.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${todos.events.history-ttl-ms:120000}")
+    private long historyTtlMs;
+
+    @Value("${todos.events.max-retained-events:20000}")
+    private long maxRetainedEvents;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Cache<Long, Channel> channels;
+
+    @PostConstruct
+    void start() {
+        long historyTtlNanos = TimeUnit.MILLISECONDS.toNanos(historyTtlMs);
+        channels = Caffeine.newBuilder()
+                .maximumWeight(maxRetainedEvents)
+                .weigher((Long userId, Channel channel) -> channel.weight())
+                .expireAfter(new Expiry<Long, Channel>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Channel channel, long currentTime) {
+                        return channel.ttl(historyTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Channel channel, long currentTime,
+                                                  long currentDuration) {
+                        return channel.ttl(historyTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Channel channel, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration; // Reads don't extend the history
+                    }
+                })
+                .removalListener((Long userId, Channel channel, RemovalCause cause) -> {
+                    if (channel != null && cause.wasEvicted()) {
+                        channel.open().forEach(Subscriber::close); // Only when over maxRetainedEvents
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    void stop() {
+        List<Subscriber> open = new ArrayList<>();
+        channels.asMap().values().forEach(channel -> open.addAll(channel.open()));
+        open.forEach(Subscriber::close);
+    }
+
+    /**
+     * SUBSCRIBE
+     *
+     * Opens a stream for the user on the current request (async mode)
+     *
+     * Reconnect (lastEventId given):
+     * - Events after lastEventId still in the ring buffer are replayed first
+     * - If some were already dropped (or come from before a restart),
+     *   one "refresh" event is sent instead
+     *
+     * @param userId - Current user
+     * @param lastEventId - Last-Event-ID from the client, or null
+     * @param request - Request to keep open
+     * @param response - Response the events are written to
+     */
+    public void subscribe(Long userId, Long lastEventId,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader("X-Accel-Buffering", "no"); // Don't let nginx buffer the stream
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, async, response.getOutputStream());
+        async.addListener(subscriber);
+        subscriber.out.setWriteListener(subscriber); // Non-blocking mode before anyone writes
+
+        // compute(): atomic with publish() and remove() for this user
+        channels.asMap().compute(userId, (id, channel) -> {
+            if (channel == null) {
+                channel = new Channel(sequence.get());
+            }
+            synchronized (channel) {
+                if (lastEventId != null) {
+                    channel.replay(lastEventId, subscriber, sequence.get());
+                }
+                if (!subscriber.closed.get()) { // Not failed or timed out already
+                    channel.subscribers.add(subscriber);
+                }
+            }
+            return channel;
+        });
+
+        subscriber.drain(); // Headers and replayed events
+    }
+
+    /**
+     * PUBLISH A CHANGED TODO (create, update, toggle)
+     */
+    public void publish(Long userId, String type, Todo todo) {
+        publish(userId, id -> TodoEvent.of(id, type, todo));
+    }
+
+    /**
+     * PUBLISH A DELETED TODO
+     */
+    public void publishDeleted(Long userId, Long todoId) {
+        publish(userId, id -> TodoEvent.deleted(id, todoId));
+    }
+
+    /**
+     * PUBLISH "RELOAD YOUR LIST" (bulk changes)
+     */
+    public void publishRefresh(Long userId) {
+        publish(userId, TodoEvent::refresh);
+    }
+
+    /**
+     * PUBLISH
+     *
+     * Recorded and queued inside computeIfPresent() so every subscriber
+     * sees the user's events in id order; offer() never blocks, so it is short
+     * - No channel (user not subscribed recently): nothing to do
+     *
+     * Writing and closing happen afterwards, outside the map's lock
+     */
+    private void publish(Long userId, LongFunction<TodoEvent> factory) {
+        List<Subscriber> ready = new ArrayList<>();
+        List<Subscriber> overflowed = new ArrayList<>();
+
+        channels.asMap().computeIfPresent(userId, (id, channel) -> {
+            synchronized (channel) {
+                TodoEvent event = factory.apply(sequence.incrementAndGet());
+                channel.remember(event, replaySize);
+                for (Subscriber subscriber : channel.subscribers) {
+                    (subscriber.offer(event) ? ready : overflowed).add(subscriber);
+                }
+            }
+            return channel;
+        });
+
+        overflowed.forEach(subscriber -> {
+            logger.debug("Closing slow todo event subscriber of user {}", userId);
+            subscriber.close();
+        });
+        ready.forEach(Subscriber::drain);
+    }
+
+    /**
+     * REMOVE A CLOSED SUBSCRIBER
+     *
+     * The channel stays, its ring buffer expires historyTtlMs later
+     */
+    private void remove(Subscriber subscriber) {
+        channels.asMap().computeIfPresent(subscriber.userId, (id, channel) -> {
+            synchronized (channel) {
+                channel.subscribers.remove(subscriber);
+            }
+            return channel; // Updated: expiry restarts when it has no subscribers
+        });
+    }
+
+    /**
+     * ONE USER'S SUBSCRIBERS AND RECENT EVENTS
+     *
+     * Guarded by synchronized (channel)
+     */
+    private static class Channel {
+        final List<Subscriber> subscribers = new ArrayList<>();
+        final Deque<TodoEvent> recent = new ArrayDeque<>();
+
+        // Every event with an id above this is (or was) in recent
+        long complete;
+
+        Channel(long createdAt) {
+            this.complete = createdAt;
+        }
+
+        /**
+         * Kept while streams are open, then for the history TTL
+         */
+        synchronized long ttl(long historyTtlNanos) {
+            return subscribers.isEmpty() ? historyTtlNanos : Long.MAX_VALUE;
+        }
+
+        /**
+         * Weight in the cache: one per retained event (at least 1),
+         * re-read on every compute()
+         */
+        synchronized int weight() {
+            return Math.max(1, recent.size());
+        }
+
+        synchronized List<Subscriber> open() {
+            return new ArrayList<>(subscribers);
+        }
+
+        void remember(TodoEvent event, int replaySize) {
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                complete = recent.removeFirst().getId();
+            }
+        }
+
+        /**
+         * Queue the events after lastEventId, or one "refresh" if some
+         * are gone or wouldn't fit in the subscriber's queue
+         */
+        void replay(long lastEventId, Subscriber subscriber, long latest) {
+            long missed = recent.stream().filter(event -> event.getId() > lastEventId).count();
+            if (lastEventId < complete || lastEventId > latest
+                    || missed > subscriber.queue.remainingCapacity()) {
+                subscriber.offer(TodoEvent.refresh(latest));
+                return;
+            }
+            for (TodoEvent event : recent) {
+                if (event.getId() > lastEventId) {
+                    subscriber.offer(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * ONE OPEN STREAM
+     *
+     * drain() writes queued events while the connection is ready; it is
+     * called by publishers and by the container (onWritePossible), one
+     * at a time, so events are written in order
+     */
+    private class Subscriber implements WriteListener, AsyncListener {
+        final Long userId;
+        final AsyncContext async;
+        final ServletOutputStream out;
+        final BlockingQueue<TodoEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        // Written but not flushed yet; starts true to send the headers
+        private boolean unflushed = true;
+
+        Subscriber(Long userId, AsyncContext async, ServletOutputStream out) {
+            this.userId = userId;
+            this.async = async;
+            this.out = out;
+        }
+
+        /**
+         * @return false if the queue is full (the caller closes the stream)
+         */
+        boolean offer(TodoEvent event) {
+            return closed.get() || queue.offer(event);
+        }
+
+        /**
+         * WRITE WHAT THE CONNECTION CAN TAKE NOW
+         *
+         * isReady() false: stop, the container calls onWritePossible() later
+         */
+        void drain() {
+            boolean failed = false;
+            synchronized (this) {
+                try {
+                    while (!closed.get() && out.isReady()) {
+                        if (unflushed) {
+                            unflushed = false;
+                            out.flush();
+                            continue;
+                        }
+                        TodoEvent event = queue.poll();
+                        if (event == null) {
+                            return;
+                        }
+                        out.write(frame(event));
+                        unflushed = true;
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    failed = true; // Client gone
+                }
+            }
+            if (failed) {
+                close(); // Not under the subscriber lock
+            }
+        }
+
+        /**
+         * id:12
+         * event:toggle
+         * data:{...}
+         */
+        private byte[] frame(TodoEvent event) throws IOException {
+            return ("id:" + event.getId() + "\nevent:" + event.getType()
+                    + "\ndata:" + objectMapper.writeValueAsString(event) + "\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close(); // The client reconnects with Last-Event-ID
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            queue.clear();
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.security.jwt.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.security.jwt.models.Todo;
+import com.security.jwt.repository.TodoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * TODO EXPORT SERVICE
+ *
+ * Writes all of a user's todos to an OutputStream, one row at a time
+ *
+ * Formats:
+ * - NDJSON: One JSON todo per line (same fields as GET /api/todos)
+ * - CSV: Header line, then one todo per line
+ *
+ * How heap use stays flat:
+ * 1. TodoRepository.streamByUserId reads rows from a JDBC cursor
+ * 2. Each todo is written, then detached from the persistence context
+ * 3. Output goes through a small buffer straight to the response
+ * - No List of todos, no big JSON array built in memory
+ *
+ * @Service: Spring-managed bean holding business logic
+ */
+@Service
+public class TodoExportService {
+
+    /*
+     * EXPORT FORMATS
+     */
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final String CSV_HEADER = "id,title,description,completed,createdAt,updatedAt";
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper; // Spring Boot's configured Jackson mapper
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * IS FORMAT SUPPORTED?
+     *
+     * @param format - Requested format (ndjson or csv)
+     * @return true if export() can write it
+     */
+    public boolean supports(String format) {
+        return FORMAT_NDJSON.equals(format) || FORMAT_CSV.equals(format);
+    }
+
+    /**
+     * EXPORT TODOS
+     *
+     * @Transactional(readOnly = true): Keeps the connection and cursor open
+     * while the stream is consumed
+     *
+     * @param userId - Owner of the todos (current user)
+     * @param format - ndjson or csv (check with supports() first)
+     * @param out - Response output stream (not closed here)
+     */
+    @Transactional(readOnly = true)
+    public void export(Long userId, String format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        boolean csv = FORMAT_CSV.equals(format);
+
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        // try-with-resources: closes the cursor even if the client disconnects
+        try (Stream<Todo> todos = todoRepository.streamByUserId(userId)) {
+            Iterator<Todo> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                Todo todo = iterator.next();
+                if (csv) {
+                    writeCsvRow(writer, todo);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(todo));
+                }
+                writer.write('\n');
+
+                // Written: let the persistence context forget it
+                entityManager.detach(todo);
+            }
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * WRITE ONE CSV ROW
+     */
+    private void writeCsvRow(Writer writer, Todo todo) throws IOException {
+        writer.write(String.valueOf(todo.getId()));
+        writer.write(',');
+        writer.write(csvField(todo.getTitle()));
+        writer.write(',');
+        writer.write(csvField(todo.getDescription()));
+        writer.write(',');
+        writer.write(String.valueOf(todo.getCompleted()));
+        writer.write(',');
+        writer.write(todo.getCreatedAt() != null ? todo.getCreatedAt().toString() : "");
+        writer.write(',');
+        writer.write(todo.getUpdatedAt() != null ? todo.getUpdatedAt().toString() : "");
+    }
+
+    /**
+     * ESCAPE A CSV FIELD (RFC 4180)
+     *
+     * Fields with commas, quotes or line breaks are wrapped in quotes,
+     * inner quotes are doubled
+     *
+     * Formula injection (CSV opened in a spreadsheet):
+     * - A field starting with = + - @ tab or CR would be run as a formula
+     *   (e.g. a title "=HYPERLINK(...)")
+     * - Such fields get a leading ' (shown as text) and are quoted
+     * - So do fields that already start with ' plus one of those, so the
+     *   import (which strips one such ') gives back the original text
+     *
+     * @return Escaped field, empty string for null
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (needsFormulaGuard(value)) {
+            return "\"'" + value.replace("\"", "\"\"") + '"';
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Starts with a formula character, or with ' then one
+     * (see TodoImportService.unguard)
+     */
+    private static boolean needsFormulaGuard(String value) {
+        int start = value.startsWith("'") ? 1 : 0;
+        return value.length() > start && isFormulaStart(value.charAt(start));
+    }
+
+    static boolean isFormulaStart(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
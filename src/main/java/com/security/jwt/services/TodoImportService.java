@@ -0,0 +1,434 @@
+package com.security.jwt.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.security.jwt.models.Todo;
+import com.security.jwt.models.User;
+import com.security.jwt.payload.response.TodoImportResponse;
+import com.security.jwt.repository.TodoRepository;
+import com.security.jwt.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * TODO IMPORT SERVICE
+ *
+ * Reads todos from an NDJSON or CSV upload and saves them for one user
+ *
+ * Formats (the same ones GET /api/todos/export writes):
+ * - NDJSON: One JSON object per line, e.g. {"title":"Buy milk","description":"2 liters"}
+ * - CSV: Header line naming the columns (title required, description and
+ *   completed optional, other columns ignored), then one todo per record
+ *
+ * How memory stays bounded:
+ * 1. The upload is read one record at a time (max MAX_RECORD_LENGTH chars)
+ * 2. Valid todos are collected until batchSize of them are waiting
+ * 3. That chunk is saved and COMMITTED in its own transaction
+ *    (Hibernate sends it as JDBC batches, hibernate.jdbc.batch_size)
+ * 4. The persistence context is cleared, then reading continues
+ *
+ * Back-pressure:
+ * - Nothing is read from the request while a chunk is being written
+ * - The client's upload simply waits (TCP flow control)
+ *
+ * Because chunks are committed as they fill, a failed upload keeps the
+ * todos saved before the failure
+ *
+ * @Service: Spring-managed bean holding business logic
+ */
+@Service
+public class TodoImportService {
+
+    /*
+     * IMPORT FORMATS
+     */
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    /*
+     * Longest accepted record (title 100 + description 500 chars, plus
+     * room for JSON/CSV syntax and extra fields)
+     */
+    private static final int MAX_RECORD_LENGTH = 8192;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator; // Bean Validation (Todo's @NotBlank, @Size)
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // One transaction per chunk
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${todos.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${todos.import.max-errors:100}")
+    private int maxErrors;
+
+    /*
+     * One JSON value per line: anything after it (e.g. {"title":"a"} {"title":"b"})
+     * fails the line instead of being silently ignored
+     */
+    private ObjectReader lineReader;
+
+    @PostConstruct
+    void init() {
+        lineReader = objectMapper.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    /**
+     * IS FORMAT SUPPORTED?
+     *
+     * @param format - Requested format (ndjson or csv)
+     * @return true if importTodos() can read it
+     */
+    public boolean supports(String format) {
+        return FORMAT_NDJSON.equals(format) || FORMAT_CSV.equals(format);
+    }
+
+    /**
+     * IMPORT TODOS
+     *
+     * @param userId - Owner of the new todos (current user)
+     * @param format - ndjson or csv (check with supports() first)
+     * @param in - Request body
+     * @return Accepted/rejected counts and the first errors
+     */
+    public TodoImportResponse importTodos(Long userId, String format, InputStream in) throws IOException {
+        TodoImportResponse response = new TodoImportResponse(maxErrors);
+        RecordReader reader = new RecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<Todo> pending = new ArrayList<>(batchSize);
+
+        if (FORMAT_CSV.equals(format)) {
+            readCsv(reader, pending, userId, response);
+        } else {
+            readNdjson(reader, pending, userId, response);
+        }
+
+        saveChunk(userId, pending, response);
+        return response;
+    }
+
+    /**
+     * READ NDJSON RECORDS
+     *
+     * Each non-blank line is parsed on its own with Jackson, so one
+     * malformed line is rejected without stopping the import
+     * - A line must hold exactly one JSON object, trailing content is malformed
+     */
+    private void readNdjson(RecordReader reader, List<Todo> pending, Long userId,
+                            TodoImportResponse response) throws IOException {
+        String line;
+        while ((line = reader.nextLine()) != null) {
+            long lineNumber = reader.getRecordLine();
+            if (reader.isTooLong()) {
+                response.rejected(lineNumber, "Record too long");
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            JsonNode node;
+            try {
+                node = lineReader.readTree(line);
+            } catch (JsonProcessingException e) {
+                response.rejected(lineNumber, "Malformed record");
+                continue;
+            }
+            if (node == null || !node.isObject()) {
+                response.rejected(lineNumber, "Malformed record");
+                continue;
+            }
+
+            accept(toTodo(text(node, "title"), text(node, "description"), text(node, "completed")),
+                    lineNumber, pending, userId, response);
+        }
+    }
+
+    /**
+     * READ CSV RECORDS
+     *
+     * The header line tells which column holds which field
+     */
+    private void readCsv(RecordReader reader, List<Todo> pending, Long userId,
+                         TodoImportResponse response) throws IOException {
+        List<String> header = reader.nextCsvRecord();
+        if (header == null) {
+            return;
+        }
+        int titleColumn = header.indexOf("title");
+        int descriptionColumn = header.indexOf("description");
+        int completedColumn = header.indexOf("completed");
+        if (reader.isTooLong() || titleColumn < 0) {
+            response.rejected(reader.getRecordLine(), "Header must contain a title column");
+            return;
+        }
+
+        List<String> record;
+        while ((record = reader.nextCsvRecord()) != null) {
+            long lineNumber = reader.getRecordLine();
+            if (reader.isTooLong()) {
+                response.rejected(lineNumber, "Record too long");
+                continue;
+            }
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue; // Blank line
+            }
+            if (record.size() != header.size()) {
+                response.rejected(lineNumber, "Expected " + header.size() + " fields");
+                continue;
+            }
+
+            accept(toTodo(field(record, titleColumn), field(record, descriptionColumn),
+                    field(record, completedColumn)), lineNumber, pending, userId, response);
+        }
+    }
+
+    /**
+     * VALIDATE ONE TODO AND QUEUE IT
+     *
+     * Saves the queued chunk once batchSize todos are waiting
+     */
+    private void accept(Todo todo, long lineNumber, List<Todo> pending, Long userId,
+                        TodoImportResponse response) {
+        if (todo == null) {
+            response.rejected(lineNumber, "completed must be true or false");
+            return;
+        }
+        Set<ConstraintViolation<Todo>> violations = validator.validate(todo);
+        if (!violations.isEmpty()) {
+            response.rejected(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+
+        pending.add(todo);
+        if (pending.size() >= batchSize) {
+            saveChunk(userId, pending, response);
+        }
+    }
+
+    /**
+     * SAVE AND COMMIT ONE CHUNK
+     *
+     * flush(): Sends the INSERTs now (in JDBC batches)
+     * clear(): Forgets the saved todos so the persistence context
+     *          doesn't grow with the upload
+     */
+    private void saveChunk(Long userId, List<Todo> pending, TodoImportResponse response) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = userRepository.getReferenceById(userId);
+            pending.forEach(todo -> todo.setUser(owner));
+            todoRepository.saveAll(pending);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        response.accepted(pending.size());
+        pending.clear();
+    }
+
+    /**
+     * BUILD A TODO FROM RECORD FIELDS
+     *
+     * @return New todo (no owner yet), or null if completed is not a boolean
+     */
+    private static Todo toTodo(String title, String description, String completed) {
+        Todo todo = new Todo(title, description, null);
+        if (completed != null && !completed.isEmpty()) {
+            if ("true".equalsIgnoreCase(completed)) {
+                todo.setCompleted(true);
+            } else if (!"false".equalsIgnoreCase(completed)) {
+                return null;
+            }
+        }
+        return todo;
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String field(List<String> record, int column) {
+        if (column < 0) {
+            return null;
+        }
+        String value = unguard(record.get(column));
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * UNDO THE EXPORT'S FORMULA GUARD
+     *
+     * TodoExportService puts a ' before fields starting with = + - @ tab
+     * or CR; one such ' is removed again, so an exported file imports
+     * back to the same titles (and a full-length title stays valid)
+     */
+    static String unguard(String value) {
+        if (value.length() > 1 && value.charAt(0) == '\''
+                && TodoExportService.isFormulaStart(value.charAt(1))) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    /**
+     * RECORD READER
+     *
+     * Reads one NDJSON line or one CSV record at a time from the upload
+     *
+     * - Keeps at most MAX_RECORD_LENGTH chars of a record; longer records
+     *   are skipped to their end and flagged with isTooLong()
+     * - Tracks the line each record starts on, for error reports
+     * - CSV quoting follows RFC 4180 (quoted fields may contain commas,
+     *   doubled quotes and line breaks)
+     */
+    private static class RecordReader {
+        private final Reader reader;
+        private long line = 1;      // Line of the next char
+        private long recordLine;    // Line the last record started on
+        private int recordLength;   // Chars kept of the last record
+        private boolean tooLong;
+        private int pushback = -1;
+
+        RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        long getRecordLine() {
+            return recordLine;
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        /**
+         * @return Next line without its line break, or null at the end
+         */
+        String nextLine() throws IOException {
+            recordLine = line;
+            recordLength = 0;
+            tooLong = false;
+            StringBuilder text = new StringBuilder();
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (c != '\r') {
+                    append(text, c);
+                }
+                c = read();
+            }
+            return text.toString();
+        }
+
+        /**
+         * @return Fields of the next CSV record, or null at the end
+         */
+        List<String> nextCsvRecord() throws IOException {
+            recordLine = line;
+            recordLength = 0;
+            tooLong = false;
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            append(field, '"');
+                        } else {
+                            quoted = false;
+                            pushback = next;
+                        }
+                    } else {
+                        append(field, c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    if (!tooLong) {
+                        fields.add(field.toString());
+                    }
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    append(field, c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private void append(StringBuilder text, int c) {
+            if (recordLength < MAX_RECORD_LENGTH) {
+                text.append((char) c);
+                recordLength++;
+            } else {
+                tooLong = true;
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (pushback != -1) {
+                c = pushback;
+                pushback = -1;
+            } else {
+                c = reader.read();
+                if (c == '\n') {
+                    line++;
+                }
+            }
+            return c;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.security.jwt.validation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * BLOOM FILTER FILE FORMAT
+ *
+ * Shared by BreachedPasswordFilter (reads the file) and
+ * BreachedPasswordFilterBuilder (writes it), so both hash passwords
+ * to the same bits
+ *
+ * Only uses the JDK: the builder runs without Spring on the classpath
+ *
+ * ============================================
+ * LAYOUT (big-endian)
+ * ============================================
+ *
+ * int  magic   "BPWF"
+ * int  version 1
+ * long bits    Size of the bit array
+ * int  hashes  Bits per password (k)
+ * byte[]       Bit array: bit i is byte i / 8, mask 1 << (i % 8)
+ */
+final class BloomFilterFile {
+
+    static final int MAGIC = 0x42505746; // "BPWF"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+
+    /*
+     * Largest bit array in one mapping (a MappedByteBuffer is int-indexed)
+     */
+    static final long MAX_BITS = (long) (Integer.MAX_VALUE - HEADER_SIZE) * 8;
+
+    private BloomFilterFile() {
+    }
+
+    /**
+     * BIT i OF A PASSWORD
+     *
+     * Double hashing: (h1 + i * h2) mod bits
+     */
+    static long index(long h1, long h2, int i, long bits) {
+        return Long.remainderUnsigned(h1 + i * h2, bits);
+    }
+
+    /**
+     * Position of a bit's byte in the file
+     */
+    static int byteOffset(long bit) {
+        return HEADER_SIZE + (int) (bit >>> 3);
+    }
+
+    /**
+     * A bit's mask inside its byte
+     */
+    static int mask(long bit) {
+        return 1 << (int) (bit & 7);
+    }
+
+    /**
+     * 8 BYTES OF A DIGEST AS A LONG (big-endian)
+     */
+    static long word(byte[] digest, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (digest[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * WRITE THE HEADER
+     */
+    static void writeHeader(ByteBuffer file, long bits, int hashes) {
+        file.putInt(0, MAGIC);
+        file.putInt(4, VERSION);
+        file.putLong(8, bits);
+        file.putInt(16, hashes);
+    }
+
+    /**
+     * SET THE BITS OF ONE SHA-1
+     */
+    static void add(ByteBuffer file, byte[] digest, long bits, int hashes) {
+        long h1 = word(digest, 0);
+        long h2 = word(digest, 8);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h1, h2, i, bits);
+            int at = byteOffset(bit);
+            file.put(at, (byte) (file.get(at) | mask(bit)));
+        }
+    }
+
+    /**
+     * REUSABLE SHA-1 DIGEST
+     *
+     * Not thread-safe: one per thread
+     */
+    static class Sha1 {
+        private final MessageDigest digest;
+        private final byte[] output = new byte[20];
+
+        Sha1() {
+            try {
+                digest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 not available", e);
+            }
+        }
+
+        /**
+         * @return SHA-1 of the UTF-8 password, in a buffer reused by the next call
+         */
+        byte[] hash(String password) {
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            try {
+                digest.digest(output, 0, output.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            return output;
+        }
+    }
+}
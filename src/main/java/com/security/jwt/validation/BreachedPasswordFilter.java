@@ -0,0 +1,131 @@
+package com.security.jwt.validation;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BREACHED PASSWORD FILTER
+ *
+ * Answers "has this password appeared in a known data breach?" without
+ * any network call, for @NotBreached
+ *
+ * ============================================
+ * HOW IT WORKS
+ * ============================================
+ *
+ * Bloom filter:
+ * - A large bit array plus k hash functions
+ * - Adding a password sets k bits, checking it reads the same k bits
+ * - All k set → "probably breached" (false positive rate chosen at build time)
+ * - Any bit clear → "definitely not in the list"
+ * - Size: about 1.2 bytes per password at 1% false positives
+ *   (the password list itself is never shipped with the application)
+ *
+ * Hashes:
+ * - SHA-1 of the UTF-8 password (20 bytes), so lists of SHA-1 hashes
+ *   (e.g. Have I Been Pwned downloads) can be used as well as plain lists
+ * - Bit i of k: (h1 + i * h2) mod bits, h1/h2 = first two 8-byte words
+ *   of the SHA-1 (double hashing, one digest per lookup)
+ *
+ * Memory mapping (FileChannel.map):
+ * - The file is mapped read-only, not read into the heap
+ * - The OS pages in only the parts that are touched, shared by processes
+ * - Lookups read k bytes at absolute offsets: no locking, no copying
+ *
+ * Building the file: see BreachedPasswordFilterBuilder
+ *
+ * ============================================
+ * CONFIGURATION
+ * ============================================
+ *
+ * - security.password-breach.filter: Path of the file (empty = disabled)
+ * - File format: see BloomFilterFile
+ *
+ * @Component: Spring-managed bean, injected into NotBreachedValidator
+ */
+@Component
+public class BreachedPasswordFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BreachedPasswordFilter.class);
+
+    /*
+     * One digest and output buffer per thread, reused by every lookup
+     */
+    private static final ThreadLocal<BloomFilterFile.Sha1> SHA1 =
+            ThreadLocal.withInitial(BloomFilterFile.Sha1::new);
+
+    @Value("${security.password-breach.filter:}")
+    private String filterPath;
+
+    private MappedByteBuffer bitArray; // null when disabled
+    private long bits;
+    private int hashes;
+
+    @PostConstruct
+    void load() {
+        if (filterPath == null || filterPath.isBlank()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filterPath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < BloomFilterFile.HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Invalid breached password filter: " + filterPath);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != BloomFilterFile.MAGIC || buffer.getInt(4) != BloomFilterFile.VERSION) {
+                throw new IllegalStateException("Not a breached password filter: " + filterPath);
+            }
+            bits = buffer.getLong(8);
+            hashes = buffer.getInt(16);
+            if (bits <= 0 || hashes <= 0 || BloomFilterFile.HEADER_SIZE + (bits + 7) / 8 > size) {
+                throw new IllegalStateException("Corrupt breached password filter: " + filterPath);
+            }
+            bitArray = buffer;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map breached password filter: " + filterPath, e);
+        }
+        logger.info("Breached password filter loaded: {} bits, {} hashes", bits, hashes);
+    }
+
+    /**
+     * IS THE FILTER LOADED?
+     *
+     * @return false when no file is configured (every password passes)
+     */
+    public boolean isEnabled() {
+        return bitArray != null;
+    }
+
+    /**
+     * IS PASSWORD (PROBABLY) BREACHED?
+     *
+     * @param password - Plain text password
+     * @return true if it is probably in the breach list,
+     *         false if it is definitely not (or the filter is disabled)
+     */
+    public boolean mightContain(String password) {
+        if (bitArray == null || password == null) {
+            return false;
+        }
+        byte[] digest = SHA1.get().hash(password);
+        long h1 = BloomFilterFile.word(digest, 0);
+        long h2 = BloomFilterFile.word(digest, 8);
+        for (int i = 0; i < hashes; i++) {
+            long bit = BloomFilterFile.index(h1, h2, i, bits);
+            if ((bitArray.get(BloomFilterFile.byteOffset(bit)) & BloomFilterFile.mask(bit)) == 0) {
+                return false; // Definitely not in the list
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,192 @@
+package com.security.jwt.validation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BREACHED PASSWORD FILTER BUILDER
+ *
+ * Build-time tool: turns a local list of breached passwords into the
+ * Bloom filter file read by BreachedPasswordFilter
+ *
+ * ============================================
+ * USAGE
+ * ============================================
+ *
+ * mvn compile
+ * java -cp target/classes com.security.jwt.validation.BreachedPasswordFilterBuilder \
+ *     <input> <output> [false-positive-rate] [--sha1]
+ *
+ * - input: One password per line (UTF-8), e.g. a common-passwords list
+ * - --sha1: Lines are SHA-1 hashes instead, optionally followed by
+ *   ":count" (the Have I Been Pwned download format)
+ * - false-positive-rate: Chance that a password NOT in the list is
+ *   still reported as breached (default 0.001 = 0.1%)
+ *
+ * Then point the application at it:
+ * security.password-breach.filter=/path/to/output
+ *
+ * ============================================
+ * SIZING
+ * ============================================
+ *
+ * For n passwords and false positive rate p:
+ * - bits   = -n * ln(p) / ln(2)^2
+ * - hashes = bits / n * ln(2)
+ *
+ * Examples (10 million passwords):
+ * - p = 0.01  → 12 MB, 7 hashes
+ * - p = 0.001 → 18 MB, 10 hashes
+ *
+ * The input is read twice (count, then add), never held in memory.
+ * The output is memory-mapped while the bits are set.
+ */
+public final class BreachedPasswordFilterBuilder {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private BreachedPasswordFilterBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean sha1 = false;
+        String[] positional = new String[3];
+        int count = 0;
+        for (String arg : args) {
+            if ("--sha1".equals(arg)) {
+                sha1 = true;
+            } else if (count < positional.length) {
+                positional[count++] = arg;
+            } else {
+                usage();
+                return;
+            }
+        }
+        if (count < 2) {
+            usage();
+            return;
+        }
+
+        Path input = Path.of(positional[0]);
+        Path output = Path.of(positional[1]);
+        double rate = count > 2 ? Double.parseDouble(positional[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+        if (!(rate > 0 && rate < 1)) {
+            throw new IllegalArgumentException("false-positive-rate must be between 0 and 1");
+        }
+
+        long passwords = countLines(input);
+        if (passwords == 0) {
+            throw new IllegalArgumentException("No passwords in " + input);
+        }
+        long bits = bits(passwords, rate);
+        int hashes = hashes(passwords, bits);
+
+        long added = build(input, output, sha1, bits, hashes);
+
+        System.out.printf("%d passwords (%d skipped), %d bits (%d bytes), %d hashes%n",
+                added, passwords - added, bits, BloomFilterFile.HEADER_SIZE + (bits + 7) / 8, hashes);
+        System.out.printf("Expected false positive rate: %.6f%n",
+                Math.pow(1 - Math.exp(-(double) hashes * added / bits), hashes));
+    }
+
+    /**
+     * BIT ARRAY SIZE FOR n PASSWORDS AT RATE p
+     */
+    static long bits(long passwords, double rate) {
+        long bits = (long) Math.ceil(-passwords * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        if (bits > BloomFilterFile.MAX_BITS) {
+            throw new IllegalArgumentException(
+                    "Filter would exceed 2 GB, use a higher false-positive-rate");
+        }
+        return Math.max(bits, 64);
+    }
+
+    /**
+     * NUMBER OF HASHES (k) THAT MINIMIZES FALSE POSITIVES
+     */
+    static int hashes(long passwords, long bits) {
+        return Math.max(1, (int) Math.round((double) bits / passwords * Math.log(2)));
+    }
+
+    /**
+     * WRITE THE FILTER
+     *
+     * @return Number of passwords added (invalid --sha1 lines are skipped)
+     */
+    private static long build(Path input, Path output, boolean sha1, long bits, int hashes)
+            throws IOException {
+        long size = BloomFilterFile.HEADER_SIZE + (bits + 7) / 8;
+        long added = 0;
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             BufferedReader reader = open(input)) {
+
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            BloomFilterFile.writeHeader(file, bits, hashes);
+
+            BloomFilterFile.Sha1 digest = new BloomFilterFile.Sha1();
+            byte[] parsed = new byte[20];
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                byte[] hash = sha1 ? parseSha1(line, parsed) : digest.hash(line);
+                if (hash != null) {
+                    BloomFilterFile.add(file, hash, bits, hashes);
+                    added++;
+                }
+            }
+            file.force();
+        }
+        return added;
+    }
+
+    /**
+     * "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:3730471" → 20 bytes
+     *
+     * @return into, or null if the line doesn't start with 40 hex digits
+     */
+    private static byte[] parseSha1(String line, byte[] into) {
+        int end = line.indexOf(':');
+        if ((end < 0 ? line.length() : end) != 40) {
+            return null;
+        }
+        for (int i = 0; i < 20; i++) {
+            int high = Character.digit(line.charAt(2 * i), 16);
+            int low = Character.digit(line.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            into[i] = (byte) ((high << 4) | low);
+        }
+        return into;
+    }
+
+    private static long countLines(Path input) throws IOException {
+        try (BufferedReader reader = open(input)) {
+            return reader.lines().filter(line -> !line.isEmpty()).count();
+        }
+    }
+
+    /**
+     * Lenient UTF-8 reader: leaked lists often contain invalid bytes,
+     * which are replaced instead of failing the build
+     */
+    private static BufferedReader open(Path input) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(input), StandardCharsets.UTF_8));
+    }
+
+    private static void usage() {
+        System.err.println("Usage: BreachedPasswordFilterBuilder <input> <output> "
+                + "[false-positive-rate] [--sha1]");
+        System.exit(2);
+    }
+}
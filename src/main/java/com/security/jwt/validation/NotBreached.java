@@ -0,0 +1,37 @@
+package com.security.jwt.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * CUSTOM VALIDATION ANNOTATION: @NotBreached
+ *
+ * Rejects passwords found in a known data breach
+ *
+ * Checked against the offline Bloom filter configured with
+ * security.password-breach.filter (see BreachedPasswordFilter)
+ * - No filter configured: every password passes
+ * - About 0.1% of other passwords are also rejected (false positives,
+ *   rate chosen when the filter is built)
+ *
+ * Separate from @StrongPassword: the strength rules and the breach
+ * check can be combined or used alone
+ *
+ * Usage:
+ * @NotBreached
+ * private String password;
+ */
+@Documented
+@Constraint(validatedBy = NotBreachedValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NotBreached {
+
+    String message() default "Password has appeared in a data breach, please choose another";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,33 @@
+package com.security.jwt.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * NOT BREACHED VALIDATOR
+ *
+ * Implements the validation logic for @NotBreached
+ *
+ * One SHA-1 and a few reads of the memory-mapped filter per password
+ *
+ * Validators are created by Spring's constraint validator factory,
+ * so they can @Autowired beans (BreachedPasswordFilter here)
+ */
+public class NotBreachedValidator implements ConstraintValidator<NotBreached, String> {
+
+    /*
+     * Offline breach list (Bloom filter)
+     * required = false: Not injected when validated outside Spring
+     */
+    @Autowired(required = false)
+    private BreachedPasswordFilter breachedPasswordFilter;
+
+    @Override
+    public boolean isValid(String password, ConstraintValidatorContext context) {
+        if (password == null || breachedPasswordFilter == null) {
+            return true; // @NotNull/@NotBlank handle null; no filter, no check
+        }
+        return !breachedPasswordFilter.mightContain(password);
+    }
+}
@@ -145,81 +145,88 @@ public class StrongPasswordValidator
         }
 
         /*
-         * STEP 3: UPPERCASE CHECK
+         * STEP 3: CHARACTER CLASS CHECKS (ONE PASS)
          *
-         * If required, ensure at least one uppercase letter (A-Z)
+         * If required, the password needs at least one:
+         * - Uppercase letter: A-Z
+         * - Lowercase letter: a-z
+         * - Digit: 0-9
+         * - Special character: @$!%*?&
          *
-         * Regex: .*[A-Z].*
-         * - .*: Any characters (zero or more)
-         * - [A-Z]: One uppercase letter
-         * - .*: Any characters (zero or more)
+         * All four are found in a single loop over the characters,
+         * instead of one password.matches(".*[A-Z].*") regex per rule
+         * (each compiled a new Pattern and scanned the whole string)
+         *
+         * Line breaks:
+         * - The old regexes' "." doesn't match line terminators, so a
+         *   password containing one failed every required check
+         * - hasLineTerminator keeps that behavior
          *
          * Examples:
-         * "Password" → contains P → PASS
+         * "Pass123!" → P, a, 1, ! found → PASS
          * "password" → no uppercase → FAIL
          */
-        if (requireUppercase && !password.matches(".*[A-Z].*")) {
-            return false;
+        boolean hasUppercase = false;
+        boolean hasLowercase = false;
+        boolean hasDigit = false;
+        boolean hasSpecial = false;
+        boolean hasLineTerminator = false;
+
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                hasUppercase = true;
+            } else if (c >= 'a' && c <= 'z') {
+                hasLowercase = true;
+            } else if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (isSpecial(c)) {
+                hasSpecial = true;
+            } else if (isLineTerminator(c)) {
+                hasLineTerminator = true;
+            }
         }
 
-        /*
-         * STEP 4: LOWERCASE CHECK
-         *
-         * If required, ensure at least one lowercase letter (a-z)
-         *
-         * Regex: .*[a-z].*
-         *
-         * Examples:
-         * "Password" → contains a,s,s,w,o,r,d → PASS
-         * "PASSWORD" → no lowercase → FAIL
-         */
-        if (requireLowercase && !password.matches(".*[a-z].*")) {
+        if (requireUppercase && (!hasUppercase || hasLineTerminator)) {
             return false;
         }
-
-        /*
-         * STEP 5: DIGIT CHECK
-         *
-         * If required, ensure at least one digit (0-9)
-         *
-         * Regex: .*\\d.*
-         * - \\d: One digit (0-9)
-         *
-         * Examples:
-         * "Password1" → contains 1 → PASS
-         * "Password" → no digit → FAIL
-         */
-        if (requireDigit && !password.matches(".*\\d.*")) {
+        if (requireLowercase && (!hasLowercase || hasLineTerminator)) {
             return false;
         }
-
-        /*
-         * STEP 6: SPECIAL CHARACTER CHECK
-         *
-         * If required, ensure at least one special character
-         *
-         * Regex: .*[@$!%*?&].*
-         * - [@$!%*?&]: One of these special characters
-         *
-         * You can customize the allowed special characters:
-         * - Change to: .*[!@#$%^&*()_+\\-=\\[\\]{};':"\\\\|,.<>\\/?].*
-         * - For all common special characters
-         *
-         * Examples:
-         * "Password1!" → contains ! → PASS
-         * "Password1" → no special char → FAIL
-         */
-        if (requireSpecial && !password.matches(".*[@$!%*?&].*")) {
+        if (requireDigit && (!hasDigit || hasLineTerminator)) {
+            return false;
+        }
+        if (requireSpecial && (!hasSpecial || hasLineTerminator)) {
             return false;
         }
 
         /*
-         * STEP 7: ALL CHECKS PASSED
+         * STEP 4: ALL CHECKS PASSED
          *
          * If we reach here, password meets all requirements
          */
         return true;
     }
+
+    /**
+     * SPECIAL CHARACTERS
+     *
+     * Same set as before: @$!%*?&
+     * To allow more, add them here (and update @StrongPassword's docs)
+     */
+    private static boolean isSpecial(char c) {
+        return c == '@' || c == '$' || c == '!' || c == '%'
+                || c == '*' || c == '?' || c == '&';
+    }
+
+    /**
+     * LINE TERMINATORS
+     *
+     * The characters java.util.regex's "." doesn't match
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
 }
 
 /*
@@ -283,7 +290,7 @@ public class StrongPasswordValidator
  *
  * 1. Custom error messages for each requirement:
  *
- * if (!password.matches(".*[A-Z].*")) {
+ * if (!hasUppercase) {
  *     context.disableDefaultConstraintViolation();
  *     context.buildConstraintViolationWithTemplate(
  *         "Password must contain at least one uppercase letter"
@@ -299,7 +306,7 @@ public class StrongPasswordValidator
  * if (password.length() < minLength) {
  *     violations.add("Too short");
  * }
- * if (requireUppercase && !password.matches(".*[A-Z].*")) {
+ * if (requireUppercase && !hasUppercase) {
  *     violations.add("Missing uppercase");
  * }
  *
@@ -317,10 +324,10 @@ public class StrongPasswordValidator
  *
  * int score = 0;
  * if (password.length() >= minLength) score++;
- * if (password.matches(".*[A-Z].*")) score++;
- * if (password.matches(".*[a-z].*")) score++;
- * if (password.matches(".*\\d.*")) score++;
- * if (password.matches(".*[@$!%*?&].*")) score++;
+ * if (hasUppercase) score++;
+ * if (hasLowercase) score++;
+ * if (hasDigit) score++;
+ * if (hasSpecial) score++;
  *
  * // Require minimum score
  * return score >= 4; // At least 4 out of 5 requirements
@@ -0,0 +1,68 @@
+package com.security.jwt.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * DUPLICATE SIGNUP MESSAGES
+ *
+ * Signup inserts without checking first; the unique constraint that
+ * rejects the INSERT decides the message (AuthController.duplicateMessage)
+ *
+ * The usernames and emails below contain the OTHER constraint's name,
+ * so a match anywhere in the driver's message (which includes the
+ * inserted values) would pick the wrong one
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerDuplicateSignupTest {
+
+    private static final String PASSWORD = "Qz7#mVx2pLr!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void duplicateUsernameIsReported() throws Exception {
+        signup("dupname", "dupname@example.com")
+                .andExpect(status().isOk());
+
+        signup("dupname", "uk_users_email@example.com")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error: Username is already taken!"));
+    }
+
+    @Test
+    void duplicateEmailIsReported() throws Exception {
+        signup("dupmail1", "uk_users_username@example.com")
+                .andExpect(status().isOk());
+
+        signup("uk_users_username", "uk_users_username@example.com")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error: Email is already in use!"));
+    }
+
+    private ResultActions signup(String username, String email) throws Exception {
+        return mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "username", username,
+                        "email", email,
+                        "password", PASSWORD))));
+    }
+}
@@ -0,0 +1,113 @@
+package com.security.jwt.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TODO BATCH BODY LIMIT (todos.batch.max-body-bytes)
+ *
+ * Against a real server (random port), so the body really arrives
+ * either with a Content-Length or chunked (no length known up front)
+ *
+ * - Over the cap: 413 on both paths, not 400 "malformed JSON"
+ * - Under the cap: the batch is applied
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "todos.batch.max-body-bytes=1024")
+class TodoBatchBodyLimitTest {
+
+    private static final String PASSWORD = "Qz7#mVx2pLr!";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private String token;
+
+    @BeforeEach
+    void signupAndSignin() throws Exception {
+        String username = "batchlimit" + USERS.incrementAndGet();
+        post("/api/auth/signup", null, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD))));
+        HttpResponse<String> signin = post("/api/auth/signin", null,
+                HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "username", username,
+                        "password", PASSWORD))));
+        token = objectMapper.readTree(signin.body()).path("token").asText();
+    }
+
+    @Test
+    void oversizedBodyWithContentLengthIs413() throws Exception {
+        byte[] body = batch(100);
+        assertThat(body.length).isGreaterThan(1024);
+
+        HttpResponse<String> response = post("/api/todos/batch", token, HttpRequest.BodyPublishers.ofByteArray(body));
+
+        assertThat(response.statusCode()).isEqualTo(413);
+    }
+
+    @Test
+    void oversizedChunkedBodyIs413() throws Exception {
+        byte[] body = batch(100);
+
+        // ofInputStream(): length unknown, sent chunked
+        HttpResponse<String> response = post("/api/todos/batch", token,
+                HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body)));
+
+        assertThat(response.statusCode()).isEqualTo(413);
+    }
+
+    @Test
+    void chunkedBodyUnderTheCapIsApplied() throws Exception {
+        byte[] body = batch(5);
+        assertThat(body.length).isLessThan(1024);
+
+        HttpResponse<String> response = post("/api/todos/batch", token,
+                HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body)));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readTree(response.body()).path("succeeded").asInt()).isEqualTo(5);
+    }
+
+    private byte[] batch(int creates) throws Exception {
+        List<Map<String, String>> create = new ArrayList<>();
+        for (int i = 0; i < creates; i++) {
+            create.add(Map.of("title", "Batch todo " + i));
+        }
+        return objectMapper.writeValueAsString(Map.of("create", create)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse<String> post(String path, String bearer, HttpRequest.BodyPublisher body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(body);
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,96 @@
+package com.security.jwt.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * QUERY PLANS OF THE TODO LIST QUERIES
+ *
+ * The todo list queries must be served by the (user_id, ...) indexes
+ * declared on Todo, including the ORDER BY, with many users' todos in
+ * the table (USERS x TODOS_PER_USER rows)
+ *
+ * H2's EXPLAIN shows the chosen index as a comment after the table, and
+ * "index sorted" when no sort step is needed
+ */
+@SpringBootTest
+class TodoIndexPlanTest {
+
+    private static final int USERS = 200;
+    private static final int TODOS_PER_USER = 50;
+
+    // Outside the ranges the id sequences hand out to other tests
+    private static final long FIRST_USER_ID = 1_000_000L;
+    private static final long FIRST_TODO_ID = 100_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        Integer seeded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, FIRST_USER_ID);
+        if (seeded != null && seeded > 0) {
+            return;
+        }
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> todos = new ArrayList<>();
+        Timestamp start = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+        for (int u = 0; u < USERS; u++) {
+            long userId = FIRST_USER_ID + u;
+            users.add(new Object[] {userId, "explain" + u, "explain" + u + "@example.com", "x"});
+            for (int t = 0; t < TODOS_PER_USER; t++) {
+                Timestamp created = new Timestamp(start.getTime() + t * 60_000L);
+                todos.add(new Object[] {FIRST_TODO_ID + (long) u * TODOS_PER_USER + t, userId,
+                        "Todo " + t, t % 3 == 0, created, created});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password) VALUES (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO todos (id, user_id, title, completed, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", todos);
+        jdbcTemplate.execute("ANALYZE"); // Row counts and selectivity for the planner
+    }
+
+    @Test
+    void listUsesUserCreatedIndex() {
+        String plan = explain("SELECT id, title FROM todos WHERE user_id = " + FIRST_USER_ID
+                + " ORDER BY created_at, id");
+
+        assertThat(plan).contains("idx_todos_user_created").contains("index sorted");
+    }
+
+    @Test
+    void completedFilterUsesUserCompletedCreatedIndex() {
+        String plan = explain("SELECT id, title FROM todos WHERE user_id = " + FIRST_USER_ID
+                + " AND completed = TRUE ORDER BY created_at, id");
+
+        assertThat(plan).contains("idx_todos_user_completed_created").contains("index sorted");
+    }
+
+    @Test
+    void completedKeysetPageUsesUserCompletedCreatedIndex() {
+        String plan = explain("SELECT id, title FROM todos WHERE user_id = " + FIRST_USER_ID
+                + " AND completed = FALSE AND (created_at > TIMESTAMP '2024-01-01 00:10:00'"
+                + " OR (created_at = TIMESTAMP '2024-01-01 00:10:00' AND id > " + FIRST_TODO_ID + "))"
+                + " ORDER BY created_at, id LIMIT 20");
+
+        assertThat(plan).contains("idx_todos_user_completed_created").contains("index sorted");
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        return plan == null ? "" : plan.toLowerCase(Locale.ROOT);
+    }
+}
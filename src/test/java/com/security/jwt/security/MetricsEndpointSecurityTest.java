@@ -0,0 +1,75 @@
+package com.security.jwt.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ACTUATOR ACCESS
+ *
+ * /actuator/metrics is for admins only; /actuator/health for any
+ * authenticated user
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsEndpointSecurityTest {
+
+    private static final String PASSWORD = "Qz7#mVx2pLr!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void metricsNeedTheAdminRole() throws Exception {
+        String user = signupAndSignin("metricsuser", List.of("user"));
+        String admin = signupAndSignin("metricsadmin", List.of("admin"));
+
+        for (String path : List.of("/actuator/metrics", "/actuator/metrics/jvm.threads.live")) {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + user))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + admin))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/actuator/health").header(HttpHeaders.AUTHORIZATION, "Bearer " + user))
+                .andExpect(status().isOk());
+    }
+
+    private String signupAndSignin(String username, List<String> roles) throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "email", username + "@example.com",
+                                "password", PASSWORD,
+                                "roles", roles))))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readTree(body).path("token").asText();
+    }
+}
@@ -0,0 +1,100 @@
+package com.security.jwt.security.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL STATEMENTS PER JWT-AUTHENTICATED REQUEST
+ *
+ * AuthTokenFilter loads the user for every request; it must take ONE
+ * query (user and roles together, see UserRepository.findWithRolesByUsername),
+ * not one for the user plus one for its lazy roles
+ *
+ * Counted with Hibernate Statistics (hibernate.generate_statistics)
+ * - The user cache and the stateless principal are off, so every request
+ *   really goes to the database
+ * - GET /api/test/user runs no query of its own
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.user-cache.enabled=false",
+        "jwt.stateless-principal.enabled=false"
+})
+@AutoConfigureMockMvc
+class AuthTokenFilterQueryCountTest {
+
+    private static final String PASSWORD = "Qz7#mVx2pLr!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void authenticatedRequestRunsOneStatement() throws Exception {
+        String token = signupAndSignin("querycount");
+
+        for (int request = 0; request < 3; request++) {
+            statistics.clear();
+
+            mockMvc.perform(get("/api/test/user")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("User Content."));
+
+            assertThat(statistics.getPrepareStatementCount())
+                    .as("SQL statements for request %d", request + 1)
+                    .isEqualTo(1);
+        }
+    }
+
+    private String signupAndSignin(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "email", username + "@example.com",
+                                "password", PASSWORD))))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readTree(body).path("token").asText();
+    }
+}
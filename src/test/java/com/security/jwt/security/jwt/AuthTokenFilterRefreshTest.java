@@ -0,0 +1,113 @@
+package com.security.jwt.security.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.security.jwt.models.ERole;
+import com.security.jwt.models.User;
+import com.security.jwt.repository.RoleRepository;
+import com.security.jwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RE-ISSUED TOKENS CARRY THE DATABASE'S ROLES
+ *
+ * Stateless principal mode re-issues a token once its claims are past the
+ * revalidation interval (here: always). The roles in the new token must
+ * be read from the database, even when the user is still in
+ * UserDetailsCache from an earlier request
+ *
+ * The role change below goes straight to the repository, so nothing
+ * invalidates the cache entry on its own
+ */
+@SpringBootTest(properties = {
+        "jwt.stateless-principal.enabled=true",
+        "jwt.stateless-principal.revalidate-ms=-1",
+        "security.user-cache.enabled=true",
+        "security.user-cache.ttl-ms=600000"
+})
+@AutoConfigureMockMvc
+class AuthTokenFilterRefreshTest {
+
+    private static final String PASSWORD = "Qz7#mVx2pLr!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void refreshedTokenHasRolesChangedWhileCached() throws Exception {
+        String token = signupAndSignin("refreshroles");
+
+        // Loads (and caches) the user with ROLE_USER
+        assertThat(roles(refresh(token))).containsExactly("ROLE_USER");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findWithRolesByUsername("refreshroles").orElseThrow();
+            user.getRoles().add(roleRepository.findByName(ERole.ROLE_ADMIN).orElseThrow());
+            userRepository.save(user);
+        });
+
+        assertThat(roles(refresh(token))).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    private String refresh(String token) throws Exception {
+        String refreshed = mockMvc.perform(get("/api/test/user")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(JwtUtils.REFRESHED_TOKEN_HEADER);
+        assertThat(refreshed).isNotNull();
+        return refreshed;
+    }
+
+    private Collection<?> roles(String token) {
+        return jwtUtils.parseJwtToken(token).getClaims().get("roles", Collection.class);
+    }
+
+    private String signupAndSignin(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "email", username + "@example.com",
+                                "password", PASSWORD))))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readTree(body).path("token").asText();
+    }
+}
@@ -0,0 +1,92 @@
+package com.security.jwt.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT KEY AND PARSER: CACHED VS BUILT PER CALL
+ *
+ * Before JwtKeyHolder, every token signed or validated decoded jwt.secret
+ * and (for validation) built a new JwtParser; now both are built once
+ *
+ * - *PerCall: the old way
+ * - *Cached: through JwtKeyHolder, as JwtUtils does now
+ *
+ * Run: mvn -Pbenchmarks verify -DskipTests -Dbenchmarks=JwtParse
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtParseBenchmark {
+
+    // Same as application.properties
+    private static final String SECRET = "MySecretKeyForJWTTokenGenerationAndValidationMustBeAtLeast256BitsLong";
+
+    private JwtKeyHolder keyHolder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyHolder = new JwtKeyHolder();
+        ReflectionTestUtils.setField(keyHolder, "jwtSecret", SECRET);
+        keyHolder.init();
+        token = sign(keyHolder.getSigningKey());
+    }
+
+    @Benchmark
+    public Claims parsePerCall() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims parseCached() {
+        return keyHolder.getParser()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public String signPerCall() {
+        return sign(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)));
+    }
+
+    @Benchmark
+    public String signCached() {
+        return sign(keyHolder.getSigningKey());
+    }
+
+    private static String sign(SecretKey key) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject("benchmark")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 3_600_000))
+                .signWith(key)
+                .compact();
+    }
+}
@@ -0,0 +1,83 @@
+package com.security.jwt.services;
+
+import com.security.jwt.models.User;
+import com.security.jwt.payload.response.TodoImportResponse;
+import com.security.jwt.repository.TodoRepository;
+import com.security.jwt.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 100 000 TODOS INSERTED IN JDBC BATCHES
+ *
+ * Todo ids come from a pooled sequence (50 ids per call) and INSERTs are
+ * sent 50 at a time (hibernate.jdbc.batch_size), so a bulk import needs
+ * about 2 statements per 50 todos instead of 2 per todo (IDENTITY: one
+ * INSERT each, no batching)
+ *
+ * Goes through TodoImportService (NDJSON), which saves 500 todos per
+ * transaction; the elapsed time is logged for comparison between runs
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TodoBulkInsertTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoBulkInsertTest.class);
+
+    private static final int TODOS = 100_000;
+    private static final int JDBC_BATCH_SIZE = 50; // hibernate.jdbc.batch_size and the sequences' allocationSize
+
+    @Autowired
+    private TodoImportService todoImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void hundredThousandTodosAreInsertedInBatches() throws Exception {
+        User user = userRepository.save(new User("bulkinsert", "bulkinsert@example.com", "x"));
+
+        StringBuilder ndjson = new StringBuilder(TODOS * 40);
+        for (int i = 0; i < TODOS; i++) {
+            ndjson.append("{\"title\":\"Bulk todo ").append(i).append("\",\"completed\":")
+                    .append(i % 2 == 0).append("}\n");
+        }
+        byte[] body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        long start = System.nanoTime();
+        TodoImportResponse response = todoImportService.importTodos(user.getId(),
+                TodoImportService.FORMAT_NDJSON, new ByteArrayInputStream(body));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        logger.info("Inserted {} todos in {} ms ({} statements, {} entities)",
+                response.getAccepted(), elapsedMs, statements, statistics.getEntityInsertCount());
+
+        assertThat(response.getAccepted()).isEqualTo((long) TODOS);
+        assertThat(response.getRejected()).isZero();
+        assertThat(todoRepository.countByUserId(user.getId())).isEqualTo((long) TODOS);
+
+        // One INSERT batch + one sequence call per 50 todos, plus a little slack
+        assertThat(statements).isLessThan(2L * TODOS / JDBC_BATCH_SIZE + 100);
+    }
+}
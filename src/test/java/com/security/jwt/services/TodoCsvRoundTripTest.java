@@ -0,0 +1,125 @@
+package com.security.jwt.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CSV EXPORT → IMPORT ROUND TRIP
+ *
+ * The export puts a ' before fields that a spreadsheet would run as a
+ * formula; the import must strip it again, so a file exported by one
+ * user and imported by another gives back the same titles
+ *
+ * - Full-length (100 char) titles starting with a formula character
+ *   must stay under @Size(max = 100)
+ * - Titles that really start with ' (with or without a formula
+ *   character after it) must survive unchanged
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoCsvRoundTripTest {
+
+    private static final String PASSWORD = "Qz7#mVx2pLr!";
+
+    private static final List<String> TITLES = List.of(
+            "-" + "x".repeat(99),
+            "=HYPERLINK(\"http://example.com\",\"click\")",
+            "+1 call back",
+            "@mention",
+            "\tindented",
+            "'=already quoted",
+            "'plain apostrophe",
+            "'",
+            "Plain, with comma");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportedCsvImportsBackToTheSameTitles() throws Exception {
+        String exporter = signupAndSignin("csvexport");
+        for (String title : TITLES) {
+            mockMvc.perform(post("/api/todos")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + exporter)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("title", title))))
+                    .andExpect(status().isCreated());
+        }
+
+        // StreamingResponseBody: written on an async dispatch
+        MvcResult export = mockMvc.perform(get("/api/todos/export")
+                        .param("format", "csv")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + exporter))
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String importer = signupAndSignin("csvimport");
+        String imported = mockMvc.perform(post("/api/todos/import")
+                        .param("format", "csv")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + importer)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(imported).path("rejected").asInt())
+                .as(imported)
+                .isZero();
+
+        assertThat(titles(importer)).containsExactlyInAnyOrderElementsOf(TITLES);
+    }
+
+    private List<String> titles(String token) throws Exception {
+        String body = mockMvc.perform(get("/api/todos")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> titles = new ArrayList<>();
+        for (JsonNode todo : objectMapper.readTree(body)) {
+            titles.add(todo.path("title").asText());
+        }
+        return titles;
+    }
+
+    private String signupAndSignin(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "email", username + "@example.com",
+                                "password", PASSWORD))))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readTree(body).path("token").asText();
+    }
+}
@@ -0,0 +1,223 @@
+package com.security.jwt.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TODO EVENT STREAM (GET /api/todos/events)
+ *
+ * Against a real server (random port): the stream uses servlet async
+ * and non-blocking writes, which MockMvc doesn't exercise
+ *
+ * - Events of the user's changes arrive on the stream
+ * - Reconnecting with Last-Event-ID replays what was missed, including
+ *   changes made while no stream was open
+ * - A subscriber that stops reading is dropped once its queue is full
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "todos.events.queue-capacity=8")
+class TodoEventPublisherTest {
+
+    private static final String PASSWORD = "Qz7#mVx2pLr!";
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TodoEventPublisher publisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void changesArriveOnTheStream() throws Exception {
+        String token = signupAndSignin("events1");
+
+        try (EventStream stream = open(token, null)) {
+            createTodo(token, "Streamed todo");
+
+            Map<String, String> event = stream.next();
+            assertThat(event.get("event")).isEqualTo("create");
+            assertThat(data(event).path("title").asText()).isEqualTo("Streamed todo");
+        }
+    }
+
+    @Test
+    void reconnectReplaysMissedEvents() throws Exception {
+        String token = signupAndSignin("events2");
+
+        String first;
+        String second;
+        try (EventStream stream = open(token, null)) {
+            createTodo(token, "First");
+            createTodo(token, "Second");
+            first = stream.next().get("id");
+            second = stream.next().get("id");
+        }
+
+        // Missed while connected elsewhere: replayed after "first"
+        try (EventStream stream = open(token, first)) {
+            Map<String, String> replayed = stream.next();
+            assertThat(replayed.get("id")).isEqualTo(second);
+            assertThat(data(replayed).path("title").asText()).isEqualTo("Second");
+        }
+
+        // Made while no stream was open: still recorded
+        createTodo(token, "Third");
+        try (EventStream stream = open(token, second)) {
+            Map<String, String> replayed = stream.next();
+            assertThat(replayed.get("event")).isEqualTo("create");
+            assertThat(data(replayed).path("title").asText()).isEqualTo("Third");
+        }
+    }
+
+    @Test
+    void stalledSubscriberIsDropped() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext async = mock(AsyncContext.class);
+        ServletOutputStream out = mock(ServletOutputStream.class);
+        when(request.startAsync()).thenReturn(async);
+        when(response.getOutputStream()).thenReturn(out);
+        when(out.isReady()).thenReturn(false); // The client never reads
+
+        Long userId = -1L; // No database user needed
+        publisher.subscribe(userId, null, request, response);
+
+        for (int i = 0; i < 8; i++) { // queue-capacity
+            publisher.publishRefresh(userId);
+        }
+        verify(async, never()).complete();
+
+        publisher.publishRefresh(userId); // Queue full
+        verify(async).complete();
+        verify(out, never()).write(any(byte[].class));
+        verify(out, never()).write(any(byte[].class), anyInt(), anyInt());
+    }
+
+    private EventStream open(String token, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/todos/events"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return new EventStream(response.body());
+    }
+
+    private void createTodo(String token, String title) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/todos"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                objectMapper.writeValueAsString(Map.of("title", title))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+    }
+
+    private String signupAndSignin(String username) throws Exception {
+        post("/api/auth/signup", Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD));
+        JsonNode body = objectMapper.readTree(post("/api/auth/signin", Map.of(
+                "username", username,
+                "password", PASSWORD)));
+        return body.path("token").asText();
+    }
+
+    private String post(String path, Map<String, String> body) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri(path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(path).isEqualTo(200);
+        return response.body();
+    }
+
+    private JsonNode data(Map<String, String> event) throws Exception {
+        return objectMapper.readTree(event.get("data"));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * Parses "id:", "event:" and "data:" lines on a reader thread;
+     * a blank line ends one event
+     */
+    private static class EventStream implements AutoCloseable {
+        private final Stream<String> lines;
+        private final BlockingQueue<Map<String, String>> events = new LinkedBlockingQueue<>();
+
+        EventStream(Stream<String> lines) {
+            this.lines = lines;
+            Thread reader = new Thread(() -> {
+                Map<String, String> event = new HashMap<>();
+                try {
+                    for (String line : (Iterable<String>) lines::iterator) {
+                        if (line.isEmpty()) {
+                            if (!event.isEmpty()) {
+                                events.add(event);
+                                event = new HashMap<>();
+                            }
+                        } else if (line.indexOf(':') > 0) {
+                            int colon = line.indexOf(':');
+                            event.put(line.substring(0, colon), line.substring(colon + 1));
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // Closed by the test
+                }
+            }, "event-stream-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        Map<String, String> next() throws InterruptedException {
+            Map<String, String> event = events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertThat(event).as("event within %d s", TIMEOUT_SECONDS).isNotNull();
+            return event;
+        }
+
+        @Override
+        public void close() {
+            lines.close();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.security.jwt.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STRONG PASSWORD VALIDATOR: FOUR REGEXES VS ONE PASS
+ *
+ * - regexes: the checks as they were (String.matches() per rule, which
+ *   compiles a Pattern every call), same as StrongPasswordValidatorTest
+ * - singlePass: StrongPasswordValidator now
+ *
+ * Passwords: valid ones of growing length, and one with no uppercase
+ * letter (the regex scans the whole string before failing)
+ *
+ * Run: mvn -Pbenchmarks verify -DskipTests -Dbenchmarks=StrongPassword
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StrongPasswordValidatorBenchmark {
+
+    @Param({"Qz7#mVx2pLr!", "correcthorsebatterystaple1A$", "nouppercaseatallinthispassword123456!"})
+    private String password;
+
+    private StrongPasswordValidator validator;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        validator = new StrongPasswordValidator();
+        validator.initialize(Defaults.class.getDeclaredField("password").getAnnotation(StrongPassword.class));
+    }
+
+    @Benchmark
+    public boolean regexes() {
+        return password.length() >= 8
+                && password.matches(".*[A-Z].*")
+                && password.matches(".*[a-z].*")
+                && password.matches(".*\\d.*")
+                && password.matches(".*[@$!%*?&].*");
+    }
+
+    @Benchmark
+    public boolean singlePass() {
+        // No context needed: long enough, so no custom message is built
+        return validator.isValid(password, null);
+    }
+
+    /**
+     * Holder of a @StrongPassword with the default rules
+     */
+    private static class Defaults {
+        @StrongPassword
+        private String password;
+    }
+}
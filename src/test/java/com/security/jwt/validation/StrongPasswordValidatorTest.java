@@ -0,0 +1,161 @@
+package com.security.jwt.validation;
+
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import java.lang.annotation.Annotation;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * STRONG PASSWORD VALIDATOR - EQUIVALENCE WITH THE OLD REGEXES
+ *
+ * The validator used to run four String.matches() regexes; the single
+ * pass over the characters must accept exactly the same passwords
+ *
+ * Random passwords (fixed seed, so failures are reproducible) are drawn
+ * from every character class the checks care about, plus the look-alikes
+ * they must NOT count (non-ASCII letters and digits) and the line
+ * terminators the regexes' "." doesn't match
+ */
+class StrongPasswordValidatorTest {
+
+    private static final long SEED = 20240521L;
+    private static final int PASSWORDS_PER_RULE_SET = 5_000;
+
+    private static final String ALPHABET = "AZMaqz059@$!%*?&#^-_ .,~\t"
+            + "\u00c9\u00df\u0663\u0131\u212a" // Look-alikes: E acute, sharp s, Arabic-Indic 3, dotless i, Kelvin sign
+            + "\n\r\u0085\u2028\u2029";  // Line terminators
+
+    @Test
+    void singlePassMatchesTheOriginalRegexes() {
+        Random random = new Random(SEED);
+        ConstraintValidatorContext context = mock(ConstraintValidatorContext.class, Answers.RETURNS_DEEP_STUBS);
+
+        for (int rules = 0; rules < 16; rules++) {
+            for (int minLength : new int[] {1, 4, 8}) {
+                StrongPassword annotation = rules(minLength,
+                        (rules & 1) != 0, (rules & 2) != 0, (rules & 4) != 0, (rules & 8) != 0);
+                StrongPasswordValidator validator = new StrongPasswordValidator();
+                validator.initialize(annotation);
+
+                for (int i = 0; i < PASSWORDS_PER_RULE_SET; i++) {
+                    String password = randomPassword(random);
+                    assertEquals(regexIsValid(annotation, password), validator.isValid(password, context),
+                            () -> "rules=" + describe(annotation) + " password=" + escape(password));
+                }
+            }
+        }
+    }
+
+    @Test
+    void lineTerminatorFailsEveryRequiredClass() {
+        ConstraintValidatorContext context = mock(ConstraintValidatorContext.class, Answers.RETURNS_DEEP_STUBS);
+        StrongPasswordValidator validator = new StrongPasswordValidator();
+        validator.initialize(rules(1, true, true, true, true));
+
+        for (char terminator : "\n\r\u0085\u2028\u2029".toCharArray()) {
+            String password = "Pass123!" + terminator;
+            assertEquals(false, validator.isValid(password, context), () -> escape(password));
+        }
+    }
+
+    /**
+     * The checks as they were before the single pass
+     */
+    private static boolean regexIsValid(StrongPassword rules, String password) {
+        if (password.length() < rules.minLength()) {
+            return false;
+        }
+        if (rules.requireUppercase() && !password.matches(".*[A-Z].*")) {
+            return false;
+        }
+        if (rules.requireLowercase() && !password.matches(".*[a-z].*")) {
+            return false;
+        }
+        if (rules.requireDigit() && !password.matches(".*\\d.*")) {
+            return false;
+        }
+        return !rules.requireSpecial() || password.matches(".*[@$!%*?&].*");
+    }
+
+    private static String randomPassword(Random random) {
+        int length = random.nextInt(17);
+        StringBuilder password = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            password.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return password.toString();
+    }
+
+    private static StrongPassword rules(int minLength, boolean uppercase, boolean lowercase,
+                                        boolean digit, boolean special) {
+        return new StrongPassword() {
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return StrongPassword.class;
+            }
+
+            @Override
+            public String message() {
+                return "Password does not meet strength requirements";
+            }
+
+            @Override
+            public Class<?>[] groups() {
+                return new Class<?>[0];
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Class<? extends Payload>[] payload() {
+                return new Class[0];
+            }
+
+            @Override
+            public int minLength() {
+                return minLength;
+            }
+
+            @Override
+            public boolean requireUppercase() {
+                return uppercase;
+            }
+
+            @Override
+            public boolean requireLowercase() {
+                return lowercase;
+            }
+
+            @Override
+            public boolean requireDigit() {
+                return digit;
+            }
+
+            @Override
+            public boolean requireSpecial() {
+                return special;
+            }
+        };
+    }
+
+    private static String describe(StrongPassword rules) {
+        return "minLength=" + rules.minLength()
+                + " upper=" + rules.requireUppercase()
+                + " lower=" + rules.requireLowercase()
+                + " digit=" + rules.requireDigit()
+                + " special=" + rules.requireSpecial();
+    }
+
+    private static String escape(String password) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : password.toCharArray()) {
+            escaped.append(c >= 0x20 && c < 0x7f ? String.valueOf(c) : String.format("\\u%04x", (int) c));
+        }
+        return escaped.toString();
+    }
+}